@@ -0,0 +1,220 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.View;
+
+/**
+ * Saved state of {@link FlexyStepIndicator} and {@link FlexyStepIndicatorView}.
+ * <p/>
+ * The state is written in compact and versioned format
+ * <pre>
+ * int      header (version, flags and mask of resource id that was set)
+ * int      byte length of the rest of the state
+ * int      current index
+ * int[]    resource id that was set only
+ * int      line active color
+ * int      line inactive color
+ * int      error color
+ * int[]    sizes, packed 2 values per int if all of them fit in 16 bits
+ * int[]    description resource id or String[] description (only the type that was set)
+ * </pre>
+ * Header and byte length are always at the same position in every version, so the state
+ * of unknown version is skipped without breaking the other states in the same parcel.
+ */
+
+class FlexySavedState extends View.BaseSavedState {
+    private static final int VERSION = 3;
+
+    private static final int FLAG_STEP_CLICKABLE = 1;
+    private static final int FLAG_DESCRIPTION_RESOURCE = 1 << 1;
+    private static final int FLAG_DESCRIPTION_STRING = 1 << 2;
+    private static final int FLAG_WIDE_SIZE = 1 << 3;
+
+    private static final int RES_DESCRIPTION_TEXT_COLOR = 1;
+    private static final int RES_NUMBER_BACKGROUND = 1 << 1;
+    private static final int RES_NUMBER_TEXT_COLOR = 1 << 2;
+    private static final int RES_DONE_ICON = 1 << 3;
+    private static final int RES_DONE_BACKGROUND = 1 << 4;
+
+    private static final int SIZE_MASK = 0xFFFF;
+
+    FlexyStyle style;
+    final StepStore stepStore = new StepStore();
+    int currentIndex;
+    boolean isStepClickable;
+    boolean isValid = true;
+
+    FlexySavedState(Parcelable superState) {
+        super(superState);
+    }
+
+    private FlexySavedState(Parcel in) {
+        super(in);
+        int header = in.readInt();
+        int length = in.readInt();
+        int startPosition = in.dataPosition();
+        if ((header & 0xFF) != VERSION) {
+            isValid = false;
+            in.setDataPosition(startPosition + length);
+            return;
+        }
+        int flags = (header >> 8) & 0xFF;
+        int resMask = (header >> 16) & 0xFF;
+        this.currentIndex = in.readInt();
+        this.isStepClickable = (flags & FLAG_STEP_CLICKABLE) != 0;
+        FlexyStyle.Builder builder = new FlexyStyle.Builder()
+                .setStepDescriptionTextColorRes(readResId(in, resMask, RES_DESCRIPTION_TEXT_COLOR))
+                .setNumberBackgroundDrawableRes(readResId(in, resMask, RES_NUMBER_BACKGROUND))
+                .setNumberTextColorRes(readResId(in, resMask, RES_NUMBER_TEXT_COLOR))
+                .setDoneIconDrawableRes(readResId(in, resMask, RES_DONE_ICON))
+                .setDoneBackgroundDrawableRes(readResId(in, resMask, RES_DONE_BACKGROUND))
+                .setLineActiveColor(in.readInt())
+                .setLineInactiveColor(in.readInt())
+                .setErrorColor(in.readInt());
+        int[] sizes = readSizes(in, (flags & FLAG_WIDE_SIZE) != 0);
+        this.style = builder.setStepDescriptionTextSize(sizes[0])
+                .setNumberTextSize(sizes[1])
+                .setNumberSize(sizes[2])
+                .setLineHeight(sizes[3])
+                .setLineLength(sizes[4])
+                .setLineDashCount(sizes[5])
+                .build();
+        if ((flags & FLAG_DESCRIPTION_RESOURCE) != 0) {
+            stepStore.readFromParcel(in, StepStore.TYPE_RESOURCE);
+        } else if ((flags & FLAG_DESCRIPTION_STRING) != 0) {
+            stepStore.readFromParcel(in, StepStore.TYPE_TEXT);
+        }
+    }
+
+    /**
+     * Check that the style and the description of this state are the same as the indicator,
+     * so the restored indicator doesn't need to rebuild its steps.
+     */
+    boolean hasSameStructure(FlexyStyle style, StepStore stepStore) {
+        return this.style.equals(style) && this.stepStore.contentEquals(stepStore);
+    }
+
+    @Override
+    public void writeToParcel(Parcel out, int flags) {
+        super.writeToParcel(out, flags);
+        int[] sizes = new int[]{
+                style.getStepDescriptionTextSize(),
+                style.getNumberTextSize(),
+                style.getNumberSize(),
+                style.getLineHeight(),
+                style.getLineLength(),
+                style.getLineDashCount()};
+        int stateFlags = 0;
+        if (isStepClickable) {
+            stateFlags |= FLAG_STEP_CLICKABLE;
+        }
+        if (stepStore.getType() == StepStore.TYPE_RESOURCE) {
+            stateFlags |= FLAG_DESCRIPTION_RESOURCE;
+        } else if (stepStore.getType() == StepStore.TYPE_TEXT) {
+            stateFlags |= FLAG_DESCRIPTION_STRING;
+        }
+        if (!isPackable(sizes)) {
+            stateFlags |= FLAG_WIDE_SIZE;
+        }
+        int resMask = getResMask(style);
+        out.writeInt(VERSION | (stateFlags << 8) | (resMask << 16));
+        int lengthPosition = out.dataPosition();
+        out.writeInt(0);
+        int startPosition = out.dataPosition();
+        out.writeInt(currentIndex);
+        writeResId(out, resMask, RES_DESCRIPTION_TEXT_COLOR, style.getStepDescriptionTextColorRes());
+        writeResId(out, resMask, RES_NUMBER_BACKGROUND, style.getNumberBackgroundDrawableRes());
+        writeResId(out, resMask, RES_NUMBER_TEXT_COLOR, style.getNumberTextColorRes());
+        writeResId(out, resMask, RES_DONE_ICON, style.getDoneIconDrawableRes());
+        writeResId(out, resMask, RES_DONE_BACKGROUND, style.getDoneBackgroundDrawableRes());
+        out.writeInt(style.getLineActiveColor());
+        out.writeInt(style.getLineInactiveColor());
+        out.writeInt(style.getErrorColor());
+        writeSizes(out, sizes, (stateFlags & FLAG_WIDE_SIZE) != 0);
+        if (stepStore.getType() != StepStore.TYPE_NONE) {
+            stepStore.writeToParcel(out);
+        }
+        int endPosition = out.dataPosition();
+        out.setDataPosition(lengthPosition);
+        out.writeInt(endPosition - startPosition);
+        out.setDataPosition(endPosition);
+    }
+
+    private static int getResMask(FlexyStyle style) {
+        int resMask = 0;
+        if (style.getStepDescriptionTextColorRes() != -1) {
+            resMask |= RES_DESCRIPTION_TEXT_COLOR;
+        }
+        if (style.getNumberBackgroundDrawableRes() != -1) {
+            resMask |= RES_NUMBER_BACKGROUND;
+        }
+        if (style.getNumberTextColorRes() != -1) {
+            resMask |= RES_NUMBER_TEXT_COLOR;
+        }
+        if (style.getDoneIconDrawableRes() != -1) {
+            resMask |= RES_DONE_ICON;
+        }
+        if (style.getDoneBackgroundDrawableRes() != -1) {
+            resMask |= RES_DONE_BACKGROUND;
+        }
+        return resMask;
+    }
+
+    private static void writeResId(Parcel out, int resMask, int resFlag, int resId) {
+        if ((resMask & resFlag) != 0) {
+            out.writeInt(resId);
+        }
+    }
+
+    private static int readResId(Parcel in, int resMask, int resFlag) {
+        return (resMask & resFlag) != 0 ? in.readInt() : -1;
+    }
+
+    private static boolean isPackable(int[] sizes) {
+        for (int size : sizes) {
+            if ((size & ~SIZE_MASK) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeSizes(Parcel out, int[] sizes, boolean isWide) {
+        if (isWide) {
+            for (int size : sizes) {
+                out.writeInt(size);
+            }
+            return;
+        }
+        for (int index = 0; index < sizes.length; index += 2) {
+            out.writeInt(sizes[index] | (sizes[index + 1] << 16));
+        }
+    }
+
+    private static int[] readSizes(Parcel in, boolean isWide) {
+        int[] sizes = new int[6];
+        if (isWide) {
+            for (int index = 0; index < sizes.length; index++) {
+                sizes[index] = in.readInt();
+            }
+            return sizes;
+        }
+        for (int index = 0; index < sizes.length; index += 2) {
+            int packed = in.readInt();
+            sizes[index] = packed & SIZE_MASK;
+            sizes[index + 1] = (packed >>> 16) & SIZE_MASK;
+        }
+        return sizes;
+    }
+
+    public static final Creator<FlexySavedState> CREATOR = new Creator<FlexySavedState>() {
+        public FlexySavedState createFromParcel(Parcel in) {
+            return new FlexySavedState(in);
+        }
+
+        public FlexySavedState[] newArray(int size) {
+            return new FlexySavedState[size];
+        }
+    };
+}
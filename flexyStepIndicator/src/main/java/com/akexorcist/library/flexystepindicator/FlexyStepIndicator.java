@@ -1,30 +1,39 @@
 package com.akexorcist.library.flexystepindicator;
 
+import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.content.Context;
+import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
-import android.os.Parcel;
+import android.os.Bundle;
 import android.os.Parcelable;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.util.SparseIntArray;
 import android.util.TypedValue;
 import android.view.Gravity;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityNodeInfo;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -32,10 +41,11 @@ import java.util.List;
  */
 
 @SuppressWarnings({"unused", "DefaultFileTemplate"})
-public class FlexyStepIndicator extends LinearLayout implements View.OnClickListener {
+public class FlexyStepIndicator extends LinearLayout {
     private static final int DEFAULT_COLOR = Color.parseColor("#DDDDDD");
-    private List<Integer> descriptionResIdList;
-    private List<String> descriptionStringList;
+    private static final int DEFAULT_PRESSED_COLOR = Color.parseColor("#1F000000");
+    private static final int DEFAULT_TRANSITION_DURATION = 300;
+    private final StepStore stepStore = new StepStore();
     private int currentIndex = -1;
     private int descriptionTextColor;
     private int descriptionTextSize;
@@ -50,10 +60,135 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
     private int lineHeight;
     private int lineLength;
     private int lineDashCount;
+    private int errorColor;
+    private int pressedColor;
     private boolean isStepClickable;
-
+    private boolean isInstantStepClickEnabled;
+    private boolean isFixedSizeMeasureEnabled;
+    private boolean isStepWrapEnabled;
+    private boolean isStepLayerCacheEnabled;
+    private boolean isAttached;
+
+    private StepModel stepModel;
+    private final SparseIntArray stepIconResArray = new SparseIntArray();
+    private final BitSet activeStepSet = new BitSet();
+    private final BitSet lastActiveStepSet = new BitSet();
     private List<StepProperty> stepPropertyList;
+    private List<StepProperty> recycledStepPropertyList;
     private StepClickListener stepClickListener;
+    private RenderMetricsListener renderMetricsListener;
+    private RenderMetrics renderMetrics;
+
+    private final LineDrawable.LinePainter linePainter = new LineDrawable.LinePainter() {
+        @Override
+        public void drawActiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+            FlexyStepIndicator.this.drawActiveLine(canvas, dashCount, lineHeight, lineLength, paint);
+        }
+
+        @Override
+        public void drawInactiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+            FlexyStepIndicator.this.drawInactiveLine(canvas, dashCount, lineHeight, lineLength, paint);
+        }
+    };
+
+    private boolean isStepUpdatePending;
+    private int renderedIndex;
+    private final Runnable stepUpdateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isStepUpdatePending = false;
+            finishStepTransition();
+            updateChangedStepView(renderedIndex, currentIndex);
+        }
+    };
+
+    // Step transition
+    private boolean isStepTransitionEnabled;
+    private int stepTransitionDuration;
+    private ValueAnimator stepTransitionAnimator;
+    private float transitionFromPosition;
+    private float transitionPosition;
+    private int transitionStartIndex;
+    private int transitionEndIndex;
+
+    private final StepModel.Observer stepModelObserver = new StepModel.Observer() {
+        @Override
+        public void onStepSetChanged() {
+            currentIndex = -1;
+            cancelStepUpdate();
+            updateIndicatorView();
+        }
+
+        @Override
+        public void onStepRangeChanged(int startIndex, int count) {
+            updateStepRangeChanged(startIndex, count);
+        }
+
+        @Override
+        public void onStepRangeInserted(int startIndex, int count) {
+            updateStepRangeInserted(startIndex, count);
+        }
+
+        @Override
+        public void onStepRangeRemoved(int startIndex, int count) {
+            updateStepRangeRemoved(startIndex, count);
+        }
+    };
+
+    // Touch
+    private final StepBoundary stepBoundary = new StepBoundary();
+    private final int[] pressedBounds = new int[4];
+    private final StepGeometry stepGeometry = new StepGeometry();
+    private final int[] layoutBounds = new int[4];
+    private final Paint pressedPaint = new Paint();
+    private int touchSlop;
+    private float downTouchX;
+    private float downTouchY;
+    private boolean isScrubbing;
+    private int pressedIndex = -1;
+
+    /**
+     * Step views aren't clickable since the touch is handled by the indicator,
+     * so accessibility service clicks the step through this delegate that shared by every step view.
+     */
+    private final View.AccessibilityDelegate stepAccessibilityDelegate = new View.AccessibilityDelegate() {
+        @Override
+        public void onInitializeAccessibilityNodeInfo(View host, AccessibilityNodeInfo info) {
+            super.onInitializeAccessibilityNodeInfo(host, info);
+            if (isStepClickable()) {
+                info.setClickable(true);
+                info.addAction(AccessibilityNodeInfo.ACTION_CLICK);
+            }
+        }
+
+        @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+        @Override
+        public boolean performAccessibilityAction(View host, int action, Bundle args) {
+            if (action == AccessibilityNodeInfo.ACTION_CLICK && isStepClickable()) {
+                int stepIndex = indexOfChild(host);
+                if (stepIndex != -1 && stepIndex < getStepCount()) {
+                    onStepClick(stepIndex);
+                    host.sendAccessibilityEvent(AccessibilityEvent.TYPE_VIEW_CLICKED);
+                    return true;
+                }
+            }
+            return super.performAccessibilityAction(host, action, args);
+        }
+    };
+
+    private boolean isStateUpdating;
+    private boolean isStepLayoutRequested;
+    private int numberMargin;
+    private int descriptionMargin;
+
+    private int styleUpdateDepth;
+    private boolean isStyleUpdatePending;
+    private final Runnable styleUpdateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            performStyleUpdate();
+        }
+    };
 
     public FlexyStepIndicator(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -72,10 +207,13 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
     }
 
     private void setup(AttributeSet attrs) {
-        setOrientation(LinearLayout.HORIZONTAL);
         setGravity(Gravity.CENTER_VERTICAL);
         setupStyleable(attrs);
         setupThing();
+        if (stepStore.getType() != StepStore.TYPE_NONE) {
+            // Steps from layout XML are created right away in a single pass
+            updateIndicatorView();
+        }
     }
 
     private void setupStyleable(AttributeSet attrs) {
@@ -93,11 +231,32 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
         lineHeight = (int) typedArray.getDimension(R.styleable.FlexyStepIndicator_flexy_lineHeight, 4);
         lineLength = (int) typedArray.getDimension(R.styleable.FlexyStepIndicator_flexy_lineLength, 30);
         lineDashCount = typedArray.getInt(R.styleable.FlexyStepIndicator_flexy_lineDashCount, 5);
+        stepStore.setTexts(typedArray.getTextArray(R.styleable.FlexyStepIndicator_flexy_steps));
+        errorColor = typedArray.getColor(R.styleable.FlexyStepIndicator_flexy_errorColor, FlexyStyle.DEFAULT_ERROR_COLOR);
+        pressedColor = typedArray.getColor(R.styleable.FlexyStepIndicator_flexy_pressedColor, DEFAULT_PRESSED_COLOR);
+        isFixedSizeMeasureEnabled = typedArray.getBoolean(R.styleable.FlexyStepIndicator_flexy_fixedSizeMeasure, false);
+        isStepLayerCacheEnabled = typedArray.getBoolean(R.styleable.FlexyStepIndicator_flexy_stepLayerCache, false);
+        isStepWrapEnabled = typedArray.getBoolean(R.styleable.FlexyStepIndicator_flexy_wrapSteps, false);
+        isStepTransitionEnabled = typedArray.getBoolean(R.styleable.FlexyStepIndicator_flexy_transitionEnabled, false);
+        stepTransitionDuration = typedArray.getInt(R.styleable.FlexyStepIndicator_flexy_transitionDuration, DEFAULT_TRANSITION_DURATION);
+        setOrientation(typedArray.getInt(R.styleable.FlexyStepIndicator_flexy_orientation, LinearLayout.HORIZONTAL));
         typedArray.recycle();
     }
 
     private void setupThing() {
         stepPropertyList = new ArrayList<>();
+        recycledStepPropertyList = new ArrayList<>();
+        touchSlop = ViewConfiguration.get(getContext()).getScaledTouchSlop();
+        numberMargin = getResources().getDimensionPixelSize(R.dimen.flexy_step_number_margin);
+        descriptionMargin = getResources().getDimensionPixelSize(R.dimen.flexy_step_description_margin);
+        pressedPaint.setColor(pressedColor);
+        stepTransitionAnimator = ValueAnimator.ofFloat(0, 1);
+        stepTransitionAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                updateStepTransition(animation.getAnimatedFraction());
+            }
+        });
     }
 
     /**
@@ -107,8 +266,75 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      *                      if current step index is more than actual step size
      */
     public void setCurrentIndex(int selectedIndex) {
+        updateCurrentIndex(selectedIndex, isStepTransitionEnabled);
+    }
+
+    private void updateCurrentIndex(int selectedIndex, boolean isAnimated) {
+        int previousIndex = isStepUpdatePending ? renderedIndex : this.currentIndex;
+        // Continue from where the running transition is, not from its target
+        float previousPosition = stepTransitionAnimator.isRunning() ? transitionPosition : previousIndex;
         this.currentIndex = selectedIndex;
-        updateView();
+        cancelStepUpdate();
+        updateChangedStepView(previousIndex, selectedIndex);
+        if (isAnimated && previousPosition != selectedIndex && stepPropertyList != null && !stepPropertyList.isEmpty()) {
+            startStepTransition(previousPosition);
+        } else {
+            finishStepTransition();
+        }
+    }
+
+    /**
+     * Set animated transition when current step index was changed.
+     * <p/>
+     * The step line will be filled progressively and the number will be cross-faded
+     * to the done icon by a single animator. Only the steps between previous and current
+     * step index will be updated in each frame.
+     *
+     * @param enabled a boolean of step transition enabled state
+     */
+    public void setStepTransitionEnabled(boolean enabled) {
+        this.isStepTransitionEnabled = enabled;
+        if (!enabled) {
+            finishStepTransition();
+        }
+    }
+
+    /**
+     * Get animated transition enabled state
+     *
+     * @return the animated transition enabled state
+     */
+    public boolean isStepTransitionEnabled() {
+        return isStepTransitionEnabled;
+    }
+
+    /**
+     * Set duration of the animated transition
+     *
+     * @param duration a duration of the animated transition (ms)
+     */
+    public void setStepTransitionDuration(int duration) {
+        this.stepTransitionDuration = duration;
+    }
+
+    /**
+     * Current step index will be changed immediately but step views will be updated
+     * later in the next frame. Multiple changes before the update will be combined into single update.
+     */
+    private void requestCurrentIndex(int selectedIndex) {
+        if (!isStepUpdatePending) {
+            isStepUpdatePending = true;
+            renderedIndex = this.currentIndex;
+            post(stepUpdateRunnable);
+        }
+        this.currentIndex = selectedIndex;
+    }
+
+    private void cancelStepUpdate() {
+        if (isStepUpdatePending) {
+            isStepUpdatePending = false;
+            removeCallbacks(stepUpdateRunnable);
+        }
     }
 
     /**
@@ -146,7 +372,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setStepDescriptionTextColorRes(int resId) {
         this.descriptionTextColor = resId;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -156,7 +382,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setStepDescriptionTextSize(int size) {
         this.descriptionTextSize = size;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -176,7 +402,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setNumberBackgroundDrawableRes(int resId) {
         this.numberBackgroundResId = resId;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -186,7 +412,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setNumberTextSize(int size) {
         this.numberTextSize = size;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -206,7 +432,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setNumberTextColorRes(int resId) {
         this.numberTextColor = resId;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -226,7 +452,47 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setDoneIconDrawableRes(int resId) {
         this.doneIconResId = resId;
-        updateView();
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set icon of the step that will be shown instead of done icon drawable when the step is done.
+     * <p/>
+     * Icon is decoded only once at the number size when any step that use it is shown as done,
+     * then it's shared by every step and indicator. Icon from the step model will be used first if it has.
+     *
+     * @param index an index of the step
+     * @param resId a resource id of drawable or -1 to use done icon drawable
+     */
+    public void setStepIconDrawableRes(int index, int resId) {
+        if (resId == -1) {
+            stepIconResArray.delete(index);
+        } else {
+            stepIconResArray.put(index, resId);
+        }
+        if (stepPropertyList != null && index < stepPropertyList.size()) {
+            updateStepRangeChanged(index, 1);
+        }
+    }
+
+    /**
+     * Get icon of the step that was set with {@link #setStepIconDrawableRes(int, int)}
+     *
+     * @param index an index of the step
+     * @return the resource id of drawable or -1 if the step uses done icon drawable
+     */
+    public int getStepIconDrawableRes(int index) {
+        return stepIconResArray.get(index, -1);
+    }
+
+    /**
+     * Remove icon of every step, so all of the steps use done icon drawable
+     */
+    public void clearStepIconDrawableRes() {
+        stepIconResArray.clear();
+        if (stepPropertyList != null) {
+            updateStepRangeChanged(0, stepPropertyList.size());
+        }
     }
 
     /**
@@ -246,7 +512,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setDoneBackgroundDrawableRes(int resId) {
         this.doneBackgroundResId = resId;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -256,7 +522,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setLineHeight(int height) {
         this.lineHeight = height;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -267,7 +533,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setLineLength(int length) {
         this.lineLength = length;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -278,7 +544,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setLineDashCount(int lineDashCount) {
         this.lineDashCount = lineDashCount;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -288,7 +554,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setLineActiveColor(int color) {
         this.lineActiveColor = color;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
@@ -298,298 +564,1251 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      */
     public void setLineInactiveColor(int color) {
         this.lineInactiveColor = color;
-        updateView();
+        requestStyleUpdate();
     }
 
     /**
-     * Set step view can be clickable or not
+     * Set color of number and description text of the step that has error state
+     * in {@link StepModel}
      *
-     * @param clickable a boolean of step view clickable state
+     * @param color a color
      */
-    public void setStepClickable(boolean clickable) {
-        this.isStepClickable = clickable;
-        updateStepClickableState();
+    public void setErrorColor(int color) {
+        this.errorColor = color;
+        requestStyleUpdate();
     }
 
     /**
-     * Get step view clickable state
+     * Set color of the highlight that is drawn over the pressed step
      *
-     * @return the step view clickable state
+     * @param color a color
      */
-    public boolean isStepClickable() {
-        return this.isStepClickable;
+    public void setPressedColor(int color) {
+        this.pressedColor = color;
+        pressedPaint.setColor(color);
+        invalidatePressedStep();
     }
 
     /**
-     * Set event listener for step view click event
+     * Get color of the highlight that is drawn over the pressed step
      *
-     * @param listener a step click listener
+     * @return the pressed color
      */
-    public void setStepClickListener(StepClickListener listener) {
-        this.stepClickListener = listener;
+    public int getPressedColor() {
+        return pressedColor;
     }
 
     /**
-     * Invalidate this view
+     * Start to batch the style update.
+     * <p/>
+     * Every style setter that called after this method won't re-render the indicator
+     * until {@link #endStyleUpdate()} was called, then the indicator will be re-rendered once.
+     * <pre>
+     * {@code
+     * indicator.beginStyleUpdate();
+     * indicator.setLineHeight(lineHeight);
+     * indicator.setLineLength(lineLength);
+     * indicator.setLineActiveColor(activeColor);
+     * indicator.endStyleUpdate();
+     * }
+     * </pre>
+     * Style setter that called outside the batch will be re-rendered in next frame,
+     * so calling many setters in a row still cause only one re-render.
      */
-    @Override
-    public void invalidate() {
-        setupThing();
-        updateIndicatorView();
-        updateStepClickableState();
-        updateView();
+    public void beginStyleUpdate() {
+        styleUpdateDepth++;
     }
 
-    private void updateStepClickableState() {
-        if (stepPropertyList != null) {
-            for (StepProperty stepProperty : stepPropertyList) {
-                stepProperty.getRootView().setClickable(isStepClickable());
-            }
+    /**
+     * Finish the style update that started by {@link #beginStyleUpdate()}
+     * and re-render the indicator if any style was changed
+     */
+    public void endStyleUpdate() {
+        if (styleUpdateDepth > 0) {
+            styleUpdateDepth--;
         }
-    }
-
-    private void updateView() {
-        if (stepPropertyList != null) {
-            int selectedIndex = getCurrentIndex();
-            for (int index = 0; index < stepPropertyList.size(); index++) {
-                updateRootViewSelection(stepPropertyList.get(index), index, selectedIndex);
-                updateIconDrawableVisibility(stepPropertyList.get(index), index, selectedIndex);
-                updateLeftDividerDrawable(stepPropertyList.get(index), index, selectedIndex);
-                updateRightDividerDrawable(stepPropertyList.get(index), index, selectedIndex);
-                updateActiveState(stepPropertyList.get(index), index, selectedIndex);
-            }
+        if (styleUpdateDepth == 0 && isStyleUpdatePending) {
+            removeCallbacks(styleUpdateRunnable);
+            performStyleUpdate();
         }
     }
 
-    private void updateRootViewSelection(StepProperty stepProperty, int index, int selectedIndex) {
-        stepProperty.getRootView().setSelected(index <= selectedIndex);
+    /**
+     * Apply all of the style to the indicator with single re-render
+     *
+     * @param style a style of the indicator
+     */
+    public void applyStyle(FlexyStyle style) {
+        beginStyleUpdate();
+        setStyle(style);
+        requestStyleUpdate();
+        endStyleUpdate();
     }
 
-    private void updateIconDrawableVisibility(StepProperty stepProperty, int index, int selectedIndex) {
-        if (stepProperty.getDoneImageView().isEnabled()) {
-            updateDoneVisibility(stepProperty.getNumberTextView(), stepProperty.getDoneImageView(), index, selectedIndex);
-        }
+    private void setStyle(FlexyStyle style) {
+        this.descriptionTextColor = style.getStepDescriptionTextColorRes();
+        this.descriptionTextSize = style.getStepDescriptionTextSize();
+        this.numberBackgroundResId = style.getNumberBackgroundDrawableRes();
+        this.numberTextSize = style.getNumberTextSize();
+        this.numberTextColor = style.getNumberTextColorRes();
+        this.numberSize = style.getNumberSize();
+        this.doneIconResId = style.getDoneIconDrawableRes();
+        this.doneBackgroundResId = style.getDoneBackgroundDrawableRes();
+        this.lineActiveColor = style.getLineActiveColor();
+        this.lineInactiveColor = style.getLineInactiveColor();
+        this.lineHeight = style.getLineHeight();
+        this.lineLength = style.getLineLength();
+        this.lineDashCount = style.getLineDashCount();
+        this.errorColor = style.getErrorColor();
     }
 
     /**
-     * Update an visibility of done icon and number of the step text.
-     * <p/>
-     * You can custom code to design how these view can be show or hide depending on current
-     * step index as you want
+     * Get current style of the indicator
      *
-     * @param tvNumber      a TextView that display the number of the that step
-     * @param ivIcon        a ImageView that display done icon or image in that step
-     * @param index         expect step index that will be custom in this method
-     * @param selectedIndex current step index that has selected
+     * @return the style of the indicator
      */
-    protected void updateDoneVisibility(TextView tvNumber, ImageView ivIcon, int index, int selectedIndex) {
-        if (index < selectedIndex) {
-            tvNumber.setVisibility(View.INVISIBLE);
-            ivIcon.setVisibility(View.VISIBLE);
-        } else {
-            tvNumber.setVisibility(View.VISIBLE);
-            ivIcon.setVisibility(View.INVISIBLE);
+    public FlexyStyle getStyle() {
+        return new FlexyStyle.Builder()
+                .setStepDescriptionTextColorRes(descriptionTextColor)
+                .setStepDescriptionTextSize(descriptionTextSize)
+                .setNumberBackgroundDrawableRes(numberBackgroundResId)
+                .setNumberTextSize(numberTextSize)
+                .setNumberTextColorRes(numberTextColor)
+                .setNumberSize(numberSize)
+                .setDoneIconDrawableRes(doneIconResId)
+                .setDoneBackgroundDrawableRes(doneBackgroundResId)
+                .setLineActiveColor(lineActiveColor)
+                .setLineInactiveColor(lineInactiveColor)
+                .setLineHeight(lineHeight)
+                .setLineLength(lineLength)
+                .setLineDashCount(lineDashCount)
+                .setErrorColor(errorColor)
+                .build();
+    }
+
+    private void requestStyleUpdate() {
+        if (isStyleUpdatePending) {
+            return;
+        }
+        isStyleUpdatePending = true;
+        if (styleUpdateDepth == 0) {
+            post(styleUpdateRunnable);
         }
     }
 
-    private void updateLeftDividerDrawable(StepProperty stepProperty, int index, int selectedIndex) {
-        updateDivider(stepProperty.getLeftDividerView(), true, index > selectedIndex);
+    private void performStyleUpdate() {
+        isStyleUpdatePending = false;
+        rebuildView();
     }
 
-    private void updateRightDividerDrawable(StepProperty stepProperty, int index, int selectedIndex) {
-        updateDivider(stepProperty.getRightDividerView(), false, index >= selectedIndex);
+    /**
+     * Set the indicator to measure itself with fixed size.
+     * <p/>
+     * Every step will have the same size that computed from number size, line length,
+     * line height and the description text in a single pass instead of the generic
+     * LinearLayout measurement. Long description will be wrapped in the step width.
+     * Step size doesn't depend on current step index in this mode, so changing
+     * current step index will only redraw the steps and never request the layout
+     * to the parent views. This mode works only with horizontal orientation.
+     *
+     * @param enabled a boolean of fixed size measurement state
+     */
+    public void setFixedSizeMeasureEnabled(boolean enabled) {
+        if (this.isFixedSizeMeasureEnabled != enabled) {
+            this.isFixedSizeMeasureEnabled = enabled;
+            requestLayout();
+        }
     }
 
-    private void updateActiveState(StepProperty stepProperty, int index, int selectedIndex) {
-        stepProperty.setActive(index <= selectedIndex);
-        stepProperty.setActiveWithLastIndex(index == selectedIndex);
+    /**
+     * Get fixed size measurement state
+     *
+     * @return the fixed size measurement state
+     */
+    public boolean isFixedSizeMeasureEnabled() {
+        return this.isFixedSizeMeasureEnabled;
     }
 
     /**
-     * Set description with string resource id to show in step view.
+     * Set orientation of the steps.
      * <p/>
-     * This method should be called to setup step view
-     * Step view won't show if you didn't call this method or
-     * {@link #setStepDescriptionList(List String descriptionList)} method
+     * Steps will be arranged from left to right with {@link LinearLayout#HORIZONTAL} (default)
+     * or from top to bottom with {@link LinearLayout#VERTICAL}, the step line will be drawn
+     * along the same direction and the description will be shown beside the number.
+     * Step views will be created again when the orientation was changed.
      *
-     * @param descriptionList List of string resource for step description
+     * @param orientation {@link LinearLayout#HORIZONTAL} or {@link LinearLayout#VERTICAL}
      */
-    public void setStepDescriptionResourceList(List<Integer> descriptionList) {
-        this.descriptionResIdList = descriptionList;
-        descriptionStringList = null;
-        currentIndex = -1;
-        updateIndicatorView();
+    @Override
+    public void setOrientation(int orientation) {
+        boolean isChanged = getOrientation() != orientation;
+        super.setOrientation(orientation);
+        // Called by LinearLayout's constructor before the steps were set up
+        if (isChanged && stepPropertyList != null) {
+            stepPropertyList.clear();
+            recycledStepPropertyList.clear();
+            removeAllViews();
+            rebuildView();
+        }
     }
 
-
     /**
-     * Set description with string to show in step view.
+     * Set the steps to be wrapped into multiple rows when they can't fit in the width
+     * of the indicator. The step line at the end of the row leads to the first step of the next row.
      * <p/>
-     * This method should be called to setup step view
-     * Step view won't show if you didn't call this method or
-     * {@link #setStepDescriptionResourceList(List Integer descriptionList)} method
+     * Rows are computed in a single pass over the steps, each step is measured only once.
+     * This mode works only with horizontal orientation.
      *
-     * @param descriptionList List of string for step description
+     * @param enabled a boolean of step wrap state
      */
-    public void setStepDescriptionList(List<String> descriptionList) {
-        this.descriptionStringList = descriptionList;
-        descriptionResIdList = null;
-        currentIndex = -1;
-        updateIndicatorView();
+    public void setStepWrapEnabled(boolean enabled) {
+        if (this.isStepWrapEnabled != enabled) {
+            this.isStepWrapEnabled = enabled;
+            requestLayout();
+        }
     }
 
-    private void updateIndicatorView() {
-        int stepCount = 0;
-        if (descriptionResIdList != null) {
-            stepCount = descriptionResIdList.size();
-        } else if (descriptionStringList != null) {
-            stepCount = descriptionStringList.size();
-        }
-        removeAllViews();
-        stepPropertyList.clear();
-        for (int index = 0; index < stepCount; index++) {
-            View view = createStepView(index, stepCount);
-            addView(view);
-            stepPropertyList.add(getStepProperty(view));
-        }
+    /**
+     * Get step wrap state
+     *
+     * @return the step wrap state
+     */
+    public boolean isStepWrapEnabled() {
+        return this.isStepWrapEnabled;
     }
 
-    private void setViewSize(View view, int width, int height) {
-        ViewGroup.LayoutParams params = view.getLayoutParams();
-        params.height = height;
-        params.width = width;
-        view.setLayoutParams(params);
+    private boolean isVertical() {
+        return getOrientation() == LinearLayout.VERTICAL;
     }
 
-    @SuppressWarnings("deprecation")
-    private View createStepView(int index, int totalStep) {
-        View view = LayoutInflater.from(getContext()).inflate(R.layout.view_flexy_step_indicator, this, false);
-        view.setSelected(false);
-        view.setOnClickListener(this);
+    private boolean isWrapLayout() {
+        return isStepWrapEnabled && !isVertical();
+    }
 
-        // Number Layout Container
-        FrameLayout layoutNumberContainer = (FrameLayout) view.findViewById(R.id.flexy_step_indicator_layout_number_container);
-        setViewSize(layoutNumberContainer, numberSize, numberSize);
+    private boolean isFixedSizeLayout() {
+        return isFixedSizeMeasureEnabled && !isVertical();
+    }
 
-        // Done Image View
-        ImageView ivDone = (ImageView) view.findViewById(R.id.flexy_step_indicator_iv_done);
-        ivDone.setVisibility(View.INVISIBLE);
-        ivDone.setEnabled(true);
-        if (doneIconResId != -1) {
-            ivDone.setImageResource(doneIconResId);
-        }
-        if (doneBackgroundResId != -1) {
-            ivDone.setBackgroundResource(doneBackgroundResId);
-        }
-        if (doneBackgroundResId == -1 && doneIconResId == -1) {
-            ivDone.setEnabled(false);
+    /**
+     * Set the steps to be cached in their own layer.
+     * <p/>
+     * Every step except the current step will be drawn into the hardware layer
+     * (or software layer when hardware acceleration isn't available), so the steps
+     * that are done or still inactive won't be redrawn when the parent view was invalidated.
+     * Only the steps that changed their state will be redrawn into the layer when
+     * current step index was changed. Each layer costs the memory of the step size,
+     * so it should be used with the indicator that doesn't have too many steps.
+     *
+     * @param enabled a boolean of step layer cache state
+     */
+    public void setStepLayerCacheEnabled(boolean enabled) {
+        if (this.isStepLayerCacheEnabled != enabled) {
+            this.isStepLayerCacheEnabled = enabled;
+            updateAllStepLayerType();
         }
+    }
 
-        // Number Text View
-        TextView tvNumber = (TextView) view.findViewById(R.id.flexy_step_indicator_tv_number);
-        tvNumber.setTextSize(TypedValue.COMPLEX_UNIT_PX, numberTextSize);
-        tvNumber.setText(String.valueOf(index + 1));
-        if (numberBackgroundResId != -1) {
-            tvNumber.setBackgroundResource(numberBackgroundResId);
-        }
-        if (numberTextColor != -1) {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                tvNumber.setTextColor(getResources().getColorStateList(numberTextColor, getContext().getTheme()));
-            } else {
-                tvNumber.setTextColor(getResources().getColorStateList(numberTextColor));
-            }
-        }
+    /**
+     * Get step layer cache state
+     *
+     * @return the step layer cache state
+     */
+    public boolean isStepLayerCacheEnabled() {
+        return this.isStepLayerCacheEnabled;
+    }
 
-        // Left Divider
-        View viewLeftDivider = view.findViewById(R.id.flexy_step_indicator_view_left_line);
-        if (index == 0) {
-            viewLeftDivider.setVisibility(View.INVISIBLE);
-        }
-        updateDivider(viewLeftDivider, true, true);
-        setLineSize(viewLeftDivider, lineDashCount, lineLength, lineHeight);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        isAttached = true;
+        updateAllStepLayerType();
+    }
 
-        // Right Divider
-        View viewRightDivider = view.findViewById(R.id.flexy_step_indicator_view_right_divider);
-        if (index == totalStep - 1) {
-            viewRightDivider.setVisibility(View.INVISIBLE);
-        }
-        updateDivider(viewRightDivider, false, true);
-        setLineSize(viewRightDivider, lineDashCount, lineLength, lineHeight);
+    @Override
+    protected void onDetachedFromWindow() {
+        isAttached = false;
+        finishStepTransition();
+        super.onDetachedFromWindow();
+    }
 
-        // Description Text View
-        TextView tvDescription = (TextView) view.findViewById(R.id.flexy_step_indicator_tv_description);
-        tvDescription.setText(getDescriptionText(index));
-        tvDescription.setTextSize(TypedValue.COMPLEX_UNIT_PX, descriptionTextSize);
-        if (descriptionTextColor != -1) {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                tvDescription.setTextColor(getResources().getColorStateList(descriptionTextColor, getContext().getTheme()));
-            } else {
-                tvDescription.setTextColor(getResources().getColorStateList(descriptionTextColor));
+    private void updateAllStepLayerType() {
+        if (stepPropertyList != null) {
+            int selectedIndex = getCurrentIndex();
+            for (int index = 0; index < stepPropertyList.size(); index++) {
+                updateStepLayerType(stepPropertyList.get(index), index, selectedIndex);
             }
         }
-
-        return view;
     }
 
-    private String getDescriptionText(int index) {
-        if (descriptionResIdList != null && descriptionResIdList.size() > index) {
-            return getResources().getString(descriptionResIdList.get(index));
-        }
-        if (descriptionStringList != null && descriptionStringList.size() > index) {
-            return descriptionStringList.get(index);
+    /**
+     * Hardware acceleration is known only after the indicator was attached to the window,
+     * so the layer will be applied when it's attached.
+     */
+    private void updateStepLayerType(StepProperty stepProperty, int index, int selectedIndex) {
+        int layerType = View.LAYER_TYPE_NONE;
+        if (isStepLayerCacheEnabled && isAttached && index != selectedIndex) {
+            layerType = isHardwareAccelerated() ? View.LAYER_TYPE_HARDWARE : View.LAYER_TYPE_SOFTWARE;
         }
-        return null;
-    }
-
-    @SuppressWarnings("deprecation")
-    private void updateDivider(View view, boolean isMirror, boolean isInactive) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
-            view.setBackground(createLineDrawable(lineDashCount, lineLength, lineHeight, lineActiveColor, lineInactiveColor, isMirror, isInactive));
-        } else {
-            view.setBackgroundDrawable(createLineDrawable(lineDashCount, lineLength, lineHeight, lineActiveColor, lineInactiveColor, isMirror, isInactive));
+        View rootView = stepProperty.getRootView();
+        if (rootView.getLayerType() != layerType) {
+            rootView.setLayerType(layerType, null);
         }
     }
 
+    /**
+     * Set step view can be clickable or not
+     *
+     * @param clickable a boolean of step view clickable state
+     */
+    public void setStepClickable(boolean clickable) {
+        this.isStepClickable = clickable;
+        if (!clickable) {
+            endTouch();
+        }
+    }
+
+    /**
+     * Get step view clickable state
+     *
+     * @return the step view clickable state
+     */
+    public boolean isStepClickable() {
+        return this.isStepClickable;
+    }
+
+    /**
+     * Set step click to be handled instantly.
+     * <p/>
+     * When enabled, {@link StepClickListener#onStepClick(int)} will be called right after
+     * the step was clicked and only the steps that changed their state will be updated
+     * in the next frame. Multiple clicks before that will be updated at once.
+     *
+     * @param enabled a boolean of instant step click state
+     */
+    public void setInstantStepClickEnabled(boolean enabled) {
+        this.isInstantStepClickEnabled = enabled;
+    }
+
+    /**
+     * Get instant step click state
+     *
+     * @return the instant step click state
+     */
+    public boolean isInstantStepClickEnabled() {
+        return this.isInstantStepClickEnabled;
+    }
+
+    /**
+     * Set event listener for step view click event
+     *
+     * @param listener a step click listener
+     */
+    public void setStepClickListener(StepClickListener listener) {
+        this.stepClickListener = listener;
+    }
+
+    /**
+     * Set listener to receive timing and counters of each render operation.
+     * <p/>
+     * The metrics aren't collected when listener is null (default),
+     * so it won't cost anything when it's disabled.
+     *
+     * @param listener a render metrics listener or null to disable it
+     */
+    public void setRenderMetricsListener(RenderMetricsListener listener) {
+        this.renderMetricsListener = listener;
+        this.renderMetrics = listener != null ? new RenderMetrics() : null;
+    }
+
+    private void rebuildView() {
+        updateIndicatorView();
+        updateView();
+    }
+
+    private void updateView() {
+        if (stepPropertyList != null) {
+            long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+            int selectedIndex = getCurrentIndex();
+            beginStateUpdate();
+            for (int index = 0; index < stepPropertyList.size(); index++) {
+                if (renderMetrics != null) {
+                    renderMetrics.onStepUpdated();
+                }
+                updateStepView(stepPropertyList.get(index), index, selectedIndex);
+            }
+            endStateUpdate();
+            if (renderMetrics != null) {
+                dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_VIEW, startTime);
+            }
+        }
+    }
+
+    /**
+     * Only the steps between previous and current selected index can change their state,
+     * so the other steps will be skipped. Step that already has the expected state
+     * will be skipped as well.
+     */
+    private void updateChangedStepView(int previousIndex, int selectedIndex) {
+        if (stepPropertyList == null || stepPropertyList.isEmpty()) {
+            return;
+        }
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        int startIndex = Math.max(0, Math.min(previousIndex, selectedIndex));
+        int endIndex = Math.min(stepPropertyList.size() - 1, Math.max(previousIndex, selectedIndex));
+        beginStateUpdate();
+        for (int index = startIndex; index <= endIndex; index++) {
+            StepProperty stepProperty = stepPropertyList.get(index);
+            if (isStepStateChanged(stepProperty, index, selectedIndex)) {
+                if (renderMetrics != null) {
+                    renderMetrics.onStepUpdated();
+                }
+                updateStepView(stepProperty, index, selectedIndex);
+            }
+        }
+        endStateUpdate();
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_CHANGED_STEP, startTime);
+        }
+    }
+
+    /**
+     * Steps were already updated to the state of current step index, then the transition
+     * draws the steps between the start position and current step index as the position moves.
+     *
+     * @param fromPosition a transition position to start from, it's between two steps
+     *                     when the previous transition was interrupted
+     */
+    private void startStepTransition(float fromPosition) {
+        if (stepTransitionAnimator.isRunning()) {
+            stepTransitionAnimator.cancel();
+        }
+        transitionFromPosition = fromPosition;
+        transitionPosition = fromPosition;
+        transitionStartIndex = Math.max(0, (int) Math.floor(Math.min(fromPosition, currentIndex)));
+        transitionEndIndex = (int) Math.ceil(Math.max(fromPosition, currentIndex));
+        // Show the start position right away, so the steps don't jump to current step index before the first frame
+        updateStepTransition(0);
+        stepTransitionAnimator.setDuration(stepTransitionDuration);
+        stepTransitionAnimator.start();
+    }
+
+    void updateStepTransition(float fraction) {
+        transitionPosition = transitionFromPosition + ((currentIndex - transitionFromPosition) * fraction);
+        int endIndex = Math.min(transitionEndIndex, stepPropertyList.size() - 1);
+        for (int index = transitionStartIndex; index <= endIndex; index++) {
+            updateStepTransitionView(stepPropertyList.get(index), index, transitionPosition);
+        }
+    }
+
+    /**
+     * Jump to the end of the running transition, it has to be called before the steps were changed.
+     */
+    private void finishStepTransition() {
+        if (stepTransitionAnimator.isRunning()) {
+            stepTransitionAnimator.cancel();
+            updateStepTransition(1);
+        }
+    }
+
+    float getTransitionPosition() {
+        return stepTransitionAnimator.isRunning() ? transitionPosition : currentIndex;
+    }
+
+    /**
+     * Fill the step lines and cross-fade the number to the done icon by the transition position.
+     * The step that the position has passed or hasn't reached yet is shown with the step index
+     * that the position is passing through.
+     */
+    private void updateStepTransitionView(StepProperty stepProperty, int index, float position) {
+        boolean isSkipped = isStepSkipped(stepProperty);
+        stepProperty.getLeftLineDrawable().setFillProgress(isSkipped ? 0 : (position - index + 0.5f) * 2);
+        stepProperty.getRightLineDrawable().setFillProgress(isSkipped ? 0 : (position - index) * 2);
+        TextView tvNumber = stepProperty.getNumberTextView();
+        ImageView ivDone = stepProperty.getDoneImageView();
+        float doneWeight = position - index;
+        if (stepProperty.getStepState() != StepModel.STEP_STATE_NORMAL || !ivDone.isEnabled()
+                || doneWeight <= 0 || doneWeight >= 1) {
+            tvNumber.setAlpha(1);
+            ivDone.setAlpha(1);
+            updateIconDrawableVisibility(stepProperty, index, (int) Math.floor(position));
+        } else {
+            tvNumber.setVisibility(View.VISIBLE);
+            tvNumber.setAlpha(1 - doneWeight);
+            ivDone.setVisibility(View.VISIBLE);
+            ivDone.setAlpha(doneWeight);
+            loadDoneIcon(stepProperty);
+        }
+    }
+
+    private void beginStateUpdate() {
+        isStateUpdating = true;
+    }
+
+    private void endStateUpdate() {
+        isStateUpdating = false;
+        if (isStepLayoutRequested) {
+            isStepLayoutRequested = false;
+            layoutStepInPlace();
+        }
+    }
+
+    /**
+     * Step size doesn't depend on the step state in fixed size measurement, so the step
+     * that requested the layout while its state was updated will be measured and laid out
+     * in place without the layout pass of the whole view hierarchy.
+     */
+    private void layoutStepInPlace() {
+        if (isLayoutRequested()) {
+            return;
+        }
+        for (int index = 0; index < getChildCount(); index++) {
+            View child = getChildAt(index);
+            if (child.isLayoutRequested()) {
+                child.measure(MeasureSpec.makeMeasureSpec(child.getMeasuredWidth(), MeasureSpec.EXACTLY),
+                        MeasureSpec.makeMeasureSpec(child.getMeasuredHeight(), MeasureSpec.EXACTLY));
+                child.layout(child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+            }
+        }
+        invalidate();
+    }
+
+    @Override
+    public void requestLayout() {
+        if (isStateUpdating && isFixedSizeLayout()) {
+            isStepLayoutRequested = true;
+            return;
+        }
+        super.requestLayout();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (isWrapLayout()) {
+            measureWrappedSteps(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
+        if (!isFixedSizeLayout()) {
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
+        updateFixedStepSize();
+        int stepWidthMeasureSpec = MeasureSpec.makeMeasureSpec(stepGeometry.getStepWidth(), MeasureSpec.EXACTLY);
+        int stepHeightMeasureSpec = MeasureSpec.makeMeasureSpec(getFixedStepHeight(), MeasureSpec.EXACTLY);
+        for (int index = 0; index < getChildCount(); index++) {
+            getChildAt(index).measure(stepWidthMeasureSpec, stepHeightMeasureSpec);
+        }
+        int width = stepGeometry.getContentWidth() + getPaddingLeft() + getPaddingRight();
+        int height = getFixedStepHeight() + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if (isWrapLayout()) {
+            layoutWrappedSteps(r - l);
+        } else if (!isFixedSizeLayout()) {
+            super.onLayout(changed, l, t, r, b);
+        } else {
+            int top = getPaddingTop() + Math.max(0, (b - t - getPaddingTop() - getPaddingBottom() - getFixedStepHeight()) / 2);
+            stepGeometry.setOrigin(getPaddingLeft(), top);
+            for (int index = 0; index < getChildCount(); index++) {
+                stepGeometry.getStepBounds(index, layoutBounds);
+                getChildAt(index).layout(layoutBounds[StepGeometry.LEFT], layoutBounds[StepGeometry.TOP],
+                        layoutBounds[StepGeometry.RIGHT], layoutBounds[StepGeometry.BOTTOM]);
+            }
+        }
+        updateStepBoundary();
+    }
+
+    /**
+     * Record the bounds of the step views after they were laid out, so the touch can be mapped
+     * to the step without asking every step view. Bounds of the fixed size steps are taken
+     * from {@link StepGeometry} directly.
+     */
+    private void updateStepBoundary() {
+        int stepCount = getChildCount();
+        boolean isFixedSizeStep = isFixedSizeLayout() && !isWrapLayout();
+        stepBoundary.reset(stepCount, isVertical(), isWrapLayout());
+        for (int index = 0; index < stepCount; index++) {
+            if (isFixedSizeStep) {
+                stepGeometry.getStepBounds(index, layoutBounds);
+                stepBoundary.setStepBounds(index, layoutBounds[StepGeometry.LEFT], layoutBounds[StepGeometry.TOP],
+                        layoutBounds[StepGeometry.RIGHT], layoutBounds[StepGeometry.BOTTOM]);
+            } else {
+                View child = getChildAt(index);
+                stepBoundary.setStepBounds(index, child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+            }
+        }
+    }
+
+    /**
+     * Each step is measured once, then placed in the current row or moved to the next row
+     * when it can't fit in the remaining width.
+     */
+    private void measureWrappedSteps(int widthMeasureSpec, int heightMeasureSpec) {
+        int maxRowWidth = Integer.MAX_VALUE;
+        if (MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            maxRowWidth = Math.max(0, MeasureSpec.getSize(widthMeasureSpec) - getPaddingLeft() - getPaddingRight());
+        }
+        int stepWidthMeasureSpec;
+        int stepHeightMeasureSpec;
+        if (isFixedSizeMeasureEnabled) {
+            updateFixedStepSize();
+            stepWidthMeasureSpec = MeasureSpec.makeMeasureSpec(stepGeometry.getStepWidth(), MeasureSpec.EXACTLY);
+            stepHeightMeasureSpec = MeasureSpec.makeMeasureSpec(getFixedStepHeight(), MeasureSpec.EXACTLY);
+        } else {
+            stepWidthMeasureSpec = maxRowWidth == Integer.MAX_VALUE ? MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED)
+                    : MeasureSpec.makeMeasureSpec(maxRowWidth, MeasureSpec.AT_MOST);
+            stepHeightMeasureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        }
+        int width = 0;
+        int height = 0;
+        int rowWidth = 0;
+        int rowHeight = 0;
+        for (int index = 0; index < getChildCount(); index++) {
+            View child = getChildAt(index);
+            if (child.getVisibility() == View.GONE) {
+                continue;
+            }
+            child.measure(stepWidthMeasureSpec, stepHeightMeasureSpec);
+            int childWidth = child.getMeasuredWidth();
+            if (rowWidth > 0 && rowWidth + childWidth > maxRowWidth) {
+                width = Math.max(width, rowWidth);
+                height += rowHeight;
+                rowWidth = 0;
+                rowHeight = 0;
+            }
+            rowWidth += childWidth;
+            rowHeight = Math.max(rowHeight, child.getMeasuredHeight());
+        }
+        width = Math.max(width, rowWidth) + getPaddingLeft() + getPaddingRight();
+        height += rowHeight + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    private void layoutWrappedSteps(int width) {
+        int maxRight = width - getPaddingRight();
+        int left = getPaddingLeft();
+        int top = getPaddingTop();
+        int rowHeight = 0;
+        for (int index = 0; index < getChildCount(); index++) {
+            View child = getChildAt(index);
+            if (child.getVisibility() == View.GONE) {
+                continue;
+            }
+            int childWidth = child.getMeasuredWidth();
+            if (left > getPaddingLeft() && left + childWidth > maxRight) {
+                left = getPaddingLeft();
+                top += rowHeight;
+                rowHeight = 0;
+            }
+            child.layout(left, top, left + childWidth, top + child.getMeasuredHeight());
+            left += childWidth;
+            rowHeight = Math.max(rowHeight, child.getMeasuredHeight());
+        }
+    }
+
+    /**
+     * Compute the step size with {@link StepGeometry} from the style, like {@link FlexyStepIndicatorView}.
+     * Description height is measured with the text layout from {@link TextLayoutCache},
+     * so the description that was measured once won't be measured again.
+     */
+    private void updateFixedStepSize() {
+        int stepCount = stepPropertyList != null ? stepPropertyList.size() : 0;
+        stepGeometry.setStyle(getStyle(), numberMargin, descriptionMargin);
+        stepGeometry.setStepCount(stepCount);
+        stepGeometry.setOrigin(getPaddingLeft(), getPaddingTop());
+        int descriptionHeight = 0;
+        if (stepCount > 0) {
+            TextPaint descriptionPaint = stepPropertyList.get(0).getDescriptionView().getPaint();
+            int descriptionWidth = stepGeometry.getDescriptionWidth();
+            Layout.Alignment descriptionAlignment = getDescriptionAlignment();
+            for (StepProperty stepProperty : stepPropertyList) {
+                String description = stepProperty.getDescription() != null ? stepProperty.getDescription() : "";
+                StaticLayout layout = TextLayoutCache.get(description, descriptionPaint, descriptionWidth, descriptionAlignment);
+                if (layout == null) {
+                    layout = TextLayoutCache.create(description, descriptionPaint, descriptionWidth, descriptionAlignment);
+                }
+                descriptionHeight = Math.max(descriptionHeight, layout.getHeight());
+            }
+        }
+        stepGeometry.setDescriptionHeight(descriptionHeight);
+    }
+
+    /**
+     * @return height of the fixed size step or 0 if there's no step
+     */
+    private int getFixedStepHeight() {
+        return stepGeometry.getStepCount() > 0 ? stepGeometry.getContentHeight() : 0;
+    }
+
+    /**
+     * Horizontal step shows the description at the center, while vertical step shows it next to the number
+     */
+    private Layout.Alignment getDescriptionAlignment() {
+        return isVertical() ? Layout.Alignment.ALIGN_NORMAL : Layout.Alignment.ALIGN_CENTER;
+    }
+
+    private boolean isStepStateChanged(StepProperty stepProperty, int index, int selectedIndex) {
+        return activeStepSet.get(index) != (index <= selectedIndex)
+                || lastActiveStepSet.get(index) != (index == selectedIndex);
+    }
+
+    private void updateStepView(StepProperty stepProperty, int index, int selectedIndex) {
+        updateRootViewSelection(stepProperty, index, selectedIndex);
+        updateIconDrawableVisibility(stepProperty, index, selectedIndex);
+        updateLeftDividerDrawable(stepProperty, index, selectedIndex);
+        updateRightDividerDrawable(stepProperty, index, selectedIndex);
+        updateActiveState(stepProperty, index, selectedIndex);
+        updateStepLayerType(stepProperty, index, selectedIndex);
+    }
+
+    private void updateRootViewSelection(StepProperty stepProperty, int index, int selectedIndex) {
+        stepProperty.getRootView().setSelected(index <= selectedIndex);
+    }
+
+    private void updateIconDrawableVisibility(StepProperty stepProperty, int index, int selectedIndex) {
+        if (stepProperty.getStepState() != StepModel.STEP_STATE_NORMAL) {
+            // Step that has error or was skipped is never shown as done
+            stepProperty.getNumberTextView().setVisibility(View.VISIBLE);
+            stepProperty.getDoneImageView().setVisibility(View.INVISIBLE);
+        } else if (stepProperty.getDoneImageView().isEnabled()) {
+            updateDoneVisibility(stepProperty.getNumberTextView(), stepProperty.getDoneImageView(), index, selectedIndex);
+            if (stepProperty.getDoneImageView().getVisibility() == View.VISIBLE) {
+                loadDoneIcon(stepProperty);
+            }
+        }
+    }
+
+    private void loadDoneIcon(StepProperty stepProperty) {
+        int iconResId = stepProperty.getDoneIconResId();
+        if (iconResId == -1 || stepProperty.getDoneIconSize() == numberSize) {
+            return;
+        }
+        stepProperty.getDoneImageView().setImageDrawable(StepIconAtlas.getIcon(getContext(), iconResId, numberSize, renderMetrics));
+        stepProperty.setDoneIconSize(numberSize);
+    }
+
+    /**
+     * Update an visibility of done icon and number of the step text.
+     * <p/>
+     * You can custom code to design how these view can be show or hide depending on current
+     * step index as you want
+     * <p/>
+     * When current step index was changed, this method will be called only for the step
+     * that active state was changed (active or active with last index). While the step transition
+     * is running, it will be called with the step index that the transition is passing through.
+     *
+     * @param tvNumber      a TextView that display the number of the that step
+     * @param ivIcon        a ImageView that display done icon or image in that step
+     * @param index         expect step index that will be custom in this method
+     * @param selectedIndex current step index that has selected
+     */
+    protected void updateDoneVisibility(TextView tvNumber, ImageView ivIcon, int index, int selectedIndex) {
+        if (index < selectedIndex) {
+            tvNumber.setVisibility(View.INVISIBLE);
+            ivIcon.setVisibility(View.VISIBLE);
+        } else {
+            tvNumber.setVisibility(View.VISIBLE);
+            ivIcon.setVisibility(View.INVISIBLE);
+        }
+    }
+
+    private void updateLeftDividerDrawable(StepProperty stepProperty, int index, int selectedIndex) {
+        updateDivider(stepProperty.getLeftLineDrawable(), true, index > selectedIndex || isStepSkipped(stepProperty));
+    }
+
+    private void updateRightDividerDrawable(StepProperty stepProperty, int index, int selectedIndex) {
+        updateDivider(stepProperty.getRightLineDrawable(), false, index >= selectedIndex || isStepSkipped(stepProperty));
+    }
+
+    private boolean isStepSkipped(StepProperty stepProperty) {
+        return stepProperty.getStepState() == StepModel.STEP_STATE_SKIPPED;
+    }
+
+    private void updateActiveState(StepProperty stepProperty, int index, int selectedIndex) {
+        activeStepSet.set(index, index <= selectedIndex);
+        lastActiveStepSet.set(index, index == selectedIndex);
+    }
+
+    /**
+     * Set description with string resource id to show in step view.
+     * <p/>
+     * This method should be called to setup step view
+     * Step view won't show if you didn't call this method or
+     * {@link #setStepDescriptionList(List String descriptionList)} method
+     *
+     * @param descriptionList List of string resource for step description
+     */
+    public void setStepDescriptionResourceList(List<Integer> descriptionList) {
+        stepStore.setResIds(descriptionList);
+        onStepDescriptionChanged();
+    }
+
+    /**
+     * Set description with string resource id to show in step view.
+     * <p/>
+     * Same as {@link #setStepDescriptionResourceList(List Integer descriptionList)}
+     * without boxing the resource id
+     *
+     * @param descriptionResIds Array of string resource for step description
+     */
+    public void setStepDescriptionResourceList(int[] descriptionResIds) {
+        stepStore.setResIds(descriptionResIds);
+        onStepDescriptionChanged();
+    }
+
+    /**
+     * Set description with string to show in step view.
+     * <p/>
+     * This method should be called to setup step view
+     * Step view won't show if you didn't call this method or
+     * {@link #setStepDescriptionResourceList(List Integer descriptionList)} method
+     *
+     * @param descriptionList List of string for step description
+     */
+    public void setStepDescriptionList(List<String> descriptionList) {
+        stepStore.setTexts(descriptionList);
+        onStepDescriptionChanged();
+    }
+
+    /**
+     * Set description with text to show in step view.
+     * <p/>
+     * Same as {@link #setStepDescriptionList(List String descriptionList)}
+     * without creating the list
+     *
+     * @param descriptions Array of text for step description
+     */
+    public void setStepDescriptionList(CharSequence[] descriptions) {
+        stepStore.setTexts(descriptions);
+        onStepDescriptionChanged();
+    }
+
+    private void onStepDescriptionChanged() {
+        clearStepModel();
+        currentIndex = -1;
+        updateIndicatorView();
+    }
+
+    /**
+     * Set step model to show its steps in step view.
+     * <p/>
+     * Description, icon and state of each step will be taken from the model
+     * instead of description list. Call {@code notify*} methods of the model when
+     * the steps were changed, so only the steps that were changed will be updated
+     * and current step index will stay at the same step.
+     *
+     * @param model a step model or null to remove the steps
+     */
+    public void setStepModel(StepModel model) {
+        clearStepModel();
+        this.stepModel = model;
+        if (model != null) {
+            model.registerObserver(stepModelObserver);
+        }
+        stepStore.clear();
+        currentIndex = -1;
+        cancelStepUpdate();
+        updateIndicatorView();
+    }
+
+    /**
+     * Get current step model
+     *
+     * @return the step model or null if steps were set by description list
+     */
+    public StepModel getStepModel() {
+        return stepModel;
+    }
+
+    private void clearStepModel() {
+        if (stepModel != null) {
+            stepModel.unregisterObserver(stepModelObserver);
+            stepModel = null;
+        }
+    }
+
+    private void updateStepRangeChanged(int startIndex, int count) {
+        applyPendingStepUpdate();
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        int stepCount = stepPropertyList.size();
+        int endIndex = Math.min(stepCount, startIndex + count);
+        int selectedIndex = getCurrentIndex();
+        for (int index = Math.max(0, startIndex); index < endIndex; index++) {
+            StepProperty stepProperty = stepPropertyList.get(index);
+            if (renderMetrics != null) {
+                renderMetrics.onStepUpdated();
+            }
+            bindStepView(stepProperty, index, stepCount);
+            updateStepView(stepProperty, index, selectedIndex);
+        }
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_STEP_MODEL, startTime);
+        }
+    }
+
+    /**
+     * Steps after the inserted steps keep their state because current step index
+     * was shifted with them, so only their number and the divider of the side steps
+     * have to be updated.
+     */
+    private void updateStepRangeInserted(int startIndex, int count) {
+        applyPendingStepUpdate();
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        int previousStepCount = stepPropertyList.size();
+        startIndex = Math.max(0, Math.min(startIndex, previousStepCount));
+        int stepCount = previousStepCount + count;
+        currentIndex = StepModel.getIndexAfterInserted(currentIndex, startIndex, count);
+        shiftStateBits(startIndex, count);
+        int selectedIndex = getCurrentIndex();
+        for (int index = startIndex; index < startIndex + count; index++) {
+            StepProperty stepProperty = obtainStepProperty();
+            if (renderMetrics != null) {
+                renderMetrics.onStepUpdated();
+            }
+            bindStepView(stepProperty, index, stepCount);
+            addView(stepProperty.getRootView(), index);
+            stepPropertyList.add(index, stepProperty);
+            updateStepView(stepProperty, index, selectedIndex);
+        }
+        updateStepPosition(startIndex - 1, startIndex + count + 1, stepCount);
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_STEP_MODEL, startTime);
+        }
+    }
+
+    /**
+     * When current step was removed, the step that take its place will be the current step.
+     */
+    private void updateStepRangeRemoved(int startIndex, int count) {
+        applyPendingStepUpdate();
+        int previousStepCount = stepPropertyList.size();
+        startIndex = Math.max(0, startIndex);
+        int endIndex = Math.min(previousStepCount, startIndex + count);
+        if (startIndex >= endIndex) {
+            return;
+        }
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        for (int index = endIndex - 1; index >= startIndex; index--) {
+            recycledStepPropertyList.add(stepPropertyList.remove(index));
+        }
+        removeViews(startIndex, endIndex - startIndex);
+        shiftStateBits(endIndex, startIndex - endIndex);
+        int stepCount = stepPropertyList.size();
+        boolean isCurrentStepRemoved = currentIndex >= startIndex && currentIndex < endIndex;
+        currentIndex = StepModel.getIndexAfterRemoved(currentIndex, startIndex, endIndex - startIndex);
+        if (isCurrentStepRemoved && startIndex < stepCount) {
+            if (renderMetrics != null) {
+                renderMetrics.onStepUpdated();
+            }
+            updateStepView(stepPropertyList.get(startIndex), startIndex, getCurrentIndex());
+        }
+        updateStepPosition(startIndex - 1, startIndex + 1, stepCount);
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_STEP_MODEL, startTime);
+        }
+    }
+
+    /**
+     * Update number and divider of the steps that moved by inserted or removed steps.
+     * Every step from the start index will be renumbered while only the steps
+     * until the divider end index can change their divider visibility.
+     */
+    private void updateStepPosition(int startIndex, int dividerEndIndex, int stepCount) {
+        for (int index = Math.max(0, startIndex); index < stepCount; index++) {
+            StepProperty stepProperty = stepPropertyList.get(index);
+            if (stepProperty.getIndex() == index && index >= dividerEndIndex) {
+                continue;
+            }
+            bindStepPosition(stepProperty, index, stepCount);
+        }
+    }
+
+    /**
+     * Move the state and the icon of the steps from the index by the shift,
+     * positive shift for inserted steps and negative shift for removed steps.
+     */
+    private void shiftStateBits(int fromIndex, int shift) {
+        shiftBits(activeStepSet, fromIndex, shift);
+        shiftBits(lastActiveStepSet, fromIndex, shift);
+        StepModel.shiftStepValues(stepIconResArray, fromIndex, shift);
+    }
+
+    private static void shiftBits(BitSet bitSet, int fromIndex, int shift) {
+        int length = bitSet.length();
+        int clearIndex = Math.min(fromIndex, fromIndex + shift);
+        if (clearIndex >= length) {
+            return;
+        }
+        BitSet movedBitSet = bitSet.get(Math.min(fromIndex, length), length);
+        bitSet.clear(clearIndex, length);
+        for (int index = movedBitSet.nextSetBit(0); index >= 0; index = movedBitSet.nextSetBit(index + 1)) {
+            bitSet.set(fromIndex + shift + index);
+        }
+    }
+
+    /**
+     * Step update that was requested by instant step click and the running step transition
+     * have to be applied before the steps were changed by step model.
+     */
+    private void applyPendingStepUpdate() {
+        finishStepTransition();
+        if (isStepUpdatePending) {
+            cancelStepUpdate();
+            updateChangedStepView(renderedIndex, currentIndex);
+        }
+    }
+
+    /**
+     * Step views that already exist will be rebound in place and only the difference
+     * of step count will be added or removed. The removed step will be kept
+     * in recycled list to reuse it later without inflating the new one.
+     */
+    private void updateIndicatorView() {
+        finishStepTransition();
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        int stepCount = getStepCount();
+        int currentStepCount = stepPropertyList.size();
+        if (currentStepCount > stepCount) {
+            for (int index = currentStepCount - 1; index >= stepCount; index--) {
+                recycledStepPropertyList.add(stepPropertyList.remove(index));
+            }
+            removeViews(stepCount, currentStepCount - stepCount);
+            activeStepSet.clear(stepCount, currentStepCount);
+            lastActiveStepSet.clear(stepCount, currentStepCount);
+        }
+        for (int index = 0; index < stepCount; index++) {
+            if (renderMetrics != null) {
+                renderMetrics.onStepUpdated();
+            }
+            if (index < stepPropertyList.size()) {
+                bindStepView(stepPropertyList.get(index), index, stepCount);
+            } else {
+                StepProperty stepProperty = obtainStepProperty();
+                bindStepView(stepProperty, index, stepCount);
+                addView(stepProperty.getRootView());
+                stepPropertyList.add(stepProperty);
+            }
+        }
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_INDICATOR_VIEW, startTime);
+        }
+    }
+
+    private void dispatchRenderMetrics(int operation, long startTime) {
+        renderMetrics.end(operation, startTime, stepPropertyList.size());
+        renderMetricsListener.onRenderMetrics(renderMetrics);
+    }
+
+    private StepProperty obtainStepProperty() {
+        int recycledSize = recycledStepPropertyList.size();
+        if (recycledSize > 0) {
+            return recycledStepPropertyList.remove(recycledSize - 1);
+        }
+        return createStepProperty(createStepView());
+    }
+
+    private void setViewSize(View view, int width, int height) {
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params.width == width && params.height == height) {
+            return;
+        }
+        params.height = height;
+        params.width = width;
+        view.setLayoutParams(params);
+    }
+
+    private View createStepView() {
+        if (renderMetrics != null) {
+            renderMetrics.onViewInflated();
+        }
+        int layoutResId = isVertical() ? R.layout.view_flexy_step_indicator_vertical : R.layout.view_flexy_step_indicator;
+        View view = LayoutInflater.from(getContext()).inflate(layoutResId, this, false);
+        view.setAccessibilityDelegate(stepAccessibilityDelegate);
+        return view;
+    }
+
+    private void bindStepView(StepProperty stepProperty, int index, int totalStep) {
+        View view = stepProperty.getRootView();
+        view.setSelected(false);
+        int stepState = getStepState(index);
+        stepProperty.setStepState(stepState);
+        bindStepPosition(stepProperty, index, totalStep);
+
+        // Number Layout Container
+        setViewSize(stepProperty.getNumberContainerView(), numberSize, numberSize);
+
+        // Done Image View
+        ImageView ivDone = stepProperty.getDoneImageView();
+        ivDone.setVisibility(View.INVISIBLE);
+        ivDone.setEnabled(true);
+        int iconResId = getStepIconResId(index);
+        if (stepProperty.getDoneIconResId() != iconResId) {
+            // Icon will be loaded when the step is shown as done
+            ivDone.setImageDrawable(null);
+            stepProperty.setDoneIconResId(iconResId);
+            stepProperty.setDoneIconSize(-1);
+        }
+        if (stepProperty.getDoneBackgroundResId() != doneBackgroundResId) {
+            setViewBackground(ivDone, getDrawableResource(doneBackgroundResId));
+            stepProperty.setDoneBackgroundResId(doneBackgroundResId);
+        }
+        if (doneBackgroundResId == -1 && iconResId == -1) {
+            ivDone.setEnabled(false);
+        }
+
+        // Number Text View
+        TextView tvNumber = stepProperty.getNumberTextView();
+        tvNumber.setVisibility(View.VISIBLE);
+        tvNumber.setTextSize(TypedValue.COMPLEX_UNIT_PX, numberTextSize);
+        if (stepProperty.getNumberBackgroundResId() != numberBackgroundResId) {
+            setViewBackground(tvNumber, getDrawableResource(numberBackgroundResId));
+            stepProperty.setNumberBackgroundResId(numberBackgroundResId);
+        }
+        if (stepState == StepModel.STEP_STATE_ERROR) {
+            tvNumber.setTextColor(errorColor);
+        } else if (numberTextColor != -1) {
+            tvNumber.setTextColor(ResourceCache.getColorStateList(getContext(), numberTextColor));
+        } else {
+            tvNumber.setTextColor(stepProperty.getDefaultNumberTextColor());
+        }
+
+        // Left Divider
+        View viewLeftDivider = stepProperty.getLeftDividerView();
+        updateDivider(stepProperty.getLeftLineDrawable(), true, true);
+        setLineSize(viewLeftDivider, lineDashCount, lineLength, lineHeight);
+
+        // Right Divider
+        View viewRightDivider = stepProperty.getRightDividerView();
+        updateDivider(stepProperty.getRightLineDrawable(), false, true);
+        setLineSize(viewRightDivider, lineDashCount, lineLength, lineHeight);
+
+        // Description View
+        StepDescriptionView viewDescription = stepProperty.getDescriptionView();
+        String description = getDescriptionText(index);
+        if (!TextUtils.equals(stepProperty.getDescription(), description)) {
+            viewDescription.setText(description);
+            stepProperty.setDescription(description);
+        }
+        viewDescription.setTextSize(descriptionTextSize);
+        if (stepState == StepModel.STEP_STATE_ERROR) {
+            viewDescription.setTextColor(errorColor);
+        } else if (descriptionTextColor != -1) {
+            viewDescription.setTextColor(ResourceCache.getColorStateList(getContext(), descriptionTextColor));
+        } else {
+            viewDescription.setTextColor(stepProperty.getDefaultDescriptionTextColor());
+        }
+
+        activeStepSet.clear(index);
+        lastActiveStepSet.clear(index);
+    }
+
+    private void bindStepPosition(StepProperty stepProperty, int index, int totalStep) {
+        stepProperty.setIndex(index);
+        TextView tvNumber = stepProperty.getNumberTextView();
+        String number = String.valueOf(index + 1);
+        if (!TextUtils.equals(tvNumber.getText(), number)) {
+            tvNumber.setText(number);
+        }
+        stepProperty.getLeftDividerView().setVisibility(index == 0 ? View.INVISIBLE : View.VISIBLE);
+        stepProperty.getRightDividerView().setVisibility(index == totalStep - 1 ? View.INVISIBLE : View.VISIBLE);
+    }
+
+    private int getStepCount() {
+        if (stepModel != null) {
+            return stepModel.getStepCount();
+        }
+        return stepStore.size();
+    }
+
+    private int getStepIconResId(int index) {
+        if (stepModel != null) {
+            int iconResId = stepModel.getStepIconRes(index);
+            if (iconResId != -1) {
+                return iconResId;
+            }
+        }
+        return stepIconResArray.get(index, doneIconResId);
+    }
+
+    private int getStepState(int index) {
+        return stepModel != null ? stepModel.getStepState(index) : StepModel.STEP_STATE_NORMAL;
+    }
+
+    private String getDescriptionText(int index) {
+        if (stepModel != null) {
+            return stepModel.getStepDescription(index);
+        }
+        return stepStore.getDescription(getResources(), index);
+    }
+
+    private void updateDivider(LineDrawable lineDrawable, boolean isMirror, boolean isInactive) {
+        lineDrawable.setLineStyle(lineDashCount, lineLength, lineHeight, lineActiveColor, lineInactiveColor);
+        lineDrawable.setMirror(isMirror);
+        lineDrawable.setVertical(isVertical());
+        lineDrawable.setInactive(isInactive);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void setViewBackground(View view, Drawable drawable) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            view.setBackground(drawable);
+        } else {
+            view.setBackgroundDrawable(drawable);
+        }
+    }
+
+    private Drawable getDrawableResource(int resId) {
+        if (resId == -1) {
+            return null;
+        }
+        return ResourceCache.getDrawable(getContext(), resId);
+    }
+
     private void setLineSize(View view, int dashCount, int lineLength, int lineHeight) {
-        setViewSize(view, lineLength, lineHeight);
+        if (isVertical()) {
+            setViewSize(view, lineHeight, lineLength);
+        } else {
+            setViewSize(view, lineLength, lineHeight);
+        }
     }
 
-    private StepProperty getStepProperty(View rootView) {
+    private StepProperty createStepProperty(View rootView) {
+        FrameLayout layoutNumberContainer = (FrameLayout) rootView.findViewById(R.id.flexy_step_indicator_layout_number_container);
         TextView tvNumber = (TextView) rootView.findViewById(R.id.flexy_step_indicator_tv_number);
+        StepDescriptionView viewDescription = (StepDescriptionView) rootView.findViewById(R.id.flexy_step_indicator_view_description);
+        viewDescription.setAlignment(getDescriptionAlignment());
         View viewLeftDivider = rootView.findViewById(R.id.flexy_step_indicator_view_left_line);
         View viewRightDivider = rootView.findViewById(R.id.flexy_step_indicator_view_right_divider);
         ImageView ivDone = (ImageView) rootView.findViewById(R.id.flexy_step_indicator_iv_done);
         StepProperty stepProperty = new StepProperty();
         stepProperty.setRootView(rootView);
+        stepProperty.setNumberContainerView(layoutNumberContainer);
         stepProperty.setLeftDividerView(viewLeftDivider);
         stepProperty.setRightDividerView(viewRightDivider);
+        stepProperty.setLeftLineDrawable(createLineDrawable(lineDashCount, lineLength, lineHeight, lineActiveColor, lineInactiveColor, true, true));
+        stepProperty.setRightLineDrawable(createLineDrawable(lineDashCount, lineLength, lineHeight, lineActiveColor, lineInactiveColor, false, true));
+        setViewBackground(viewLeftDivider, stepProperty.getLeftLineDrawable());
+        setViewBackground(viewRightDivider, stepProperty.getRightLineDrawable());
         stepProperty.setNumberTextView(tvNumber);
+        stepProperty.setDescriptionView(viewDescription);
+        stepProperty.setDefaultNumberTextColor(tvNumber.getTextColors());
+        stepProperty.setDefaultDescriptionTextColor(viewDescription.getTextColors());
         stepProperty.setDoneImageView(ivDone);
-        stepProperty.setActive(false);
         return stepProperty;
     }
 
-    private Drawable createLineDrawable(int dashCount, int lineLength, int lineHeight, int normalColor, int dashColor, boolean isMirror, boolean isActive) {
-        int totalWidth = (int) ((dashCount - 0.5f) * lineLength);
-        Paint paint = new Paint();
-        if (isActive) {
-            paint.setColor(dashColor);
-        } else {
-            paint.setColor(normalColor);
-        }
-        Bitmap bitmap = Bitmap.createBitmap(totalWidth, lineHeight, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(bitmap);
-        if (isActive) {
-            drawActiveLine(canvas, dashCount, lineHeight, lineLength, paint);
-        } else {
-            drawInactiveLine(canvas, dashCount, lineHeight, lineLength, paint);
-        }
-        if (isMirror) {
-            Matrix matrix = new Matrix();
-            matrix.preScale(-1, 1);
-            bitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, false);
+    private LineDrawable createLineDrawable(int dashCount, int lineLength, int lineHeight, int normalColor, int dashColor, boolean isMirror, boolean isActive) {
+        if (renderMetrics != null) {
+            renderMetrics.onLineDrawableCreated();
         }
-        return new BitmapDrawable(getResources(), bitmap);
+        LineDrawable lineDrawable = new LineDrawable(linePainter);
+        lineDrawable.setLineStyle(dashCount, lineLength, lineHeight, normalColor, dashColor);
+        lineDrawable.setMirror(isMirror);
+        lineDrawable.setVertical(isVertical());
+        lineDrawable.setInactive(isActive);
+        return lineDrawable;
     }
 
     /**
@@ -597,6 +1816,9 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      * <p/>
      * Horizontal line of step that link to side step was create by canvas.
      * So you can custom the step line with your code
+     * <p/>
+     * The canvas was clipped and scaled to the step line area that has width of
+     * {@code (dashCount - 0.5) * lineLength}, it isn't the bitmap canvas anymore.
      *
      * @param canvas     a canvas instance to draw the step line
      * @param dashCount  a number of dash for the step line (include left and right side)
@@ -607,7 +1829,7 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
     @SuppressWarnings("UnnecessaryLocalVariable")
     protected void drawActiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
         for (int i = 0; i < dashCount; i++) {
-            float x1 = lineLength * 2 * i;
+            float x1 = StepGeometry.getDashStart(i, lineLength);
             float x2 = x1 + lineLength;
             float y1 = 0;
             float y2 = lineHeight;
@@ -620,6 +1842,9 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      * <p/>
      * Horizontal line of step that link to side step was create by canvas.
      * So you can custom the step line with your code
+     * <p/>
+     * The canvas was clipped and scaled to the step line area that has width of
+     * {@code (dashCount - 0.5) * lineLength}, it isn't the bitmap canvas anymore.
      *
      * @param canvas     a canvas instance to draw the step line
      * @param dashCount  a number of dash for the step line (include left and right side)
@@ -628,209 +1853,184 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
      * @param paint      a paint instance to draw something on canvas
      */
     protected void drawInactiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
-        canvas.drawRect(0, 0, canvas.getWidth(), lineHeight, paint);
+        canvas.drawRect(0, 0, LineDrawable.getContentWidth(dashCount, lineLength), lineHeight, paint);
+    }
+
+    /**
+     * Touch of every step is handled here instead of the click listener in each step view.
+     * <p/>
+     * Tapping the step will select it. Once the touch was moved more than the touch slop,
+     * every step that was passed through will be selected one by one (swipe to scrub)
+     * and {@link StepClickListener#onStepClick(int)} will be called only for the step that
+     * isn't the current step already.
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!isStepClickable()) {
+            return super.onTouchEvent(event);
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                downTouchX = event.getX();
+                downTouchY = event.getY();
+                isScrubbing = false;
+                setPressedIndex(getStepIndexAt(event.getX(), event.getY()));
+                return pressedIndex != -1;
+            case MotionEvent.ACTION_MOVE:
+                if (pressedIndex == -1) {
+                    return true;
+                }
+                if (!isScrubbing && (Math.abs(event.getX() - downTouchX) > touchSlop
+                        || Math.abs(event.getY() - downTouchY) > touchSlop)) {
+                    isScrubbing = true;
+                    if (getParent() != null) {
+                        getParent().requestDisallowInterceptTouchEvent(true);
+                    }
+                    onScrubStep(pressedIndex);
+                }
+                if (isScrubbing) {
+                    int stepIndex = getStepIndexAt(event.getX(), event.getY());
+                    if (stepIndex != -1 && stepIndex != pressedIndex) {
+                        setPressedIndex(stepIndex);
+                        onScrubStep(stepIndex);
+                    }
+                }
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (!isScrubbing && pressedIndex != -1 && getStepIndexAt(event.getX(), event.getY()) == pressedIndex) {
+                    performClick();
+                    onStepClick(pressedIndex);
+                }
+                endTouch();
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                endTouch();
+                return true;
+        }
+        return true;
     }
 
     @Override
-    public void onClick(View view) {
-        int stepIndex = getStepViewIndexClicked(view);
-        if (stepIndex != -1) {
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    private void endTouch() {
+        isScrubbing = false;
+        setPressedIndex(-1);
+    }
+
+    private int getStepIndexAt(float x, float y) {
+        int stepIndex = stepBoundary.getStepIndexAt((int) x + getScrollX(), (int) y + getScrollY());
+        return stepIndex < getStepCount() ? stepIndex : -1;
+    }
+
+    private void onStepClick(int stepIndex) {
+        if (isInstantStepClickEnabled) {
+            requestCurrentIndex(stepIndex);
+        } else {
             setCurrentIndex(stepIndex);
-            if (stepClickListener != null) {
-                stepClickListener.onStepClick(stepIndex);
-            }
+        }
+        if (stepClickListener != null) {
+            stepClickListener.onStepClick(stepIndex);
         }
     }
 
-    private int getStepViewIndexClicked(View view) {
-        if (stepPropertyList != null) {
-            for (int index = 0; index < stepPropertyList.size(); index++) {
-                StepProperty stepProperty = stepPropertyList.get(index);
-                if (stepProperty.getRootView() == view) {
-                    return index;
-                }
-            }
+    private void onScrubStep(int stepIndex) {
+        if (stepIndex != getCurrentIndex()) {
+            onStepClick(stepIndex);
+        }
+    }
+
+    private void setPressedIndex(int stepIndex) {
+        if (pressedIndex == stepIndex) {
+            return;
+        }
+        invalidatePressedStep();
+        pressedIndex = stepIndex;
+        invalidatePressedStep();
+    }
+
+    private void invalidatePressedStep() {
+        if (pressedIndex != -1 && pressedIndex < stepBoundary.getStepCount()) {
+            stepBoundary.getStepBounds(pressedIndex, pressedBounds);
+            invalidate(pressedBounds[StepGeometry.LEFT], pressedBounds[StepGeometry.TOP],
+                    pressedBounds[StepGeometry.RIGHT], pressedBounds[StepGeometry.BOTTOM]);
+        }
+    }
+
+    /**
+     * Pressed step is highlighted over the step views, so the step views don't need their own pressed state.
+     */
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        if (pressedIndex != -1 && pressedIndex < stepBoundary.getStepCount()) {
+            stepBoundary.getStepBounds(pressedIndex, pressedBounds);
+            canvas.drawRect(pressedBounds[StepGeometry.LEFT], pressedBounds[StepGeometry.TOP],
+                    pressedBounds[StepGeometry.RIGHT], pressedBounds[StepGeometry.BOTTOM], pressedPaint);
         }
-        return -1;
     }
 
     @Override
     protected Parcelable onSaveInstanceState() {
         Parcelable superState = super.onSaveInstanceState();
-        SavedState ss = new SavedState(superState);
+        FlexySavedState ss = new FlexySavedState(superState);
+        ss.style = getStyle();
         ss.currentIndex = this.currentIndex;
-        ss.descriptionTextColor = this.descriptionTextColor;
-        ss.descriptionTextSize = this.descriptionTextSize;
-        ss.numberBackgroundResId = this.numberBackgroundResId;
-        ss.numberTextSize = this.numberTextSize;
-        ss.numberTextColor = this.numberTextColor;
-        ss.numberSize = this.numberSize;
-        ss.doneIconResId = this.doneIconResId;
-        ss.doneBackgroundResId = this.doneBackgroundResId;
-        ss.lineActiveColor = this.lineActiveColor;
-        ss.lineInactiveColor = this.lineInactiveColor;
-        ss.lineHeight = this.lineHeight;
-        ss.lineLength = this.lineLength;
-        ss.lineDashCount = this.lineDashCount;
         ss.isStepClickable = this.isStepClickable;
-        ss.descriptionResIdList = this.descriptionResIdList;
-        ss.descriptionStringList = this.descriptionStringList;
+        ss.stepStore.set(stepStore);
         return ss;
     }
 
     @Override
     protected void onRestoreInstanceState(Parcelable state) {
-        if (!(state instanceof SavedState)) {
+        if (!(state instanceof FlexySavedState)) {
             super.onRestoreInstanceState(state);
             return;
         }
-        SavedState ss = (SavedState) state;
+        FlexySavedState ss = (FlexySavedState) state;
         super.onRestoreInstanceState(ss.getSuperState());
-        this.currentIndex = ss.currentIndex;
-        this.descriptionTextColor = ss.descriptionTextColor;
-        this.descriptionTextSize = ss.descriptionTextSize;
-        this.numberBackgroundResId = ss.numberBackgroundResId;
-        this.numberTextSize = ss.numberTextSize;
-        this.numberTextColor = ss.numberTextColor;
-        this.numberSize = ss.numberSize;
-        this.doneIconResId = ss.doneIconResId;
-        this.doneBackgroundResId = ss.doneBackgroundResId;
-        this.lineActiveColor = ss.lineActiveColor;
-        this.lineInactiveColor = ss.lineInactiveColor;
-        this.lineHeight = ss.lineHeight;
-        this.lineLength = ss.lineLength;
-        this.lineDashCount = ss.lineDashCount;
-        this.isStepClickable = ss.isStepClickable;
-        this.descriptionResIdList = ss.descriptionResIdList;
-        this.descriptionStringList = ss.descriptionStringList;
-        invalidate();
-    }
-
-    private static class SavedState extends BaseSavedState {
-        List<Integer> descriptionResIdList;
-        List<String> descriptionStringList;
-        int currentIndex;
-        int descriptionTextColor;
-        int descriptionTextSize;
-        int numberBackgroundResId;
-        int numberTextSize;
-        int numberTextColor;
-        int numberSize;
-        int doneIconResId;
-        int doneBackgroundResId;
-        int lineActiveColor;
-        int lineInactiveColor;
-        int lineHeight;
-        int lineLength;
-        int lineDashCount;
-        boolean isStepClickable;
-
-        SavedState(Parcelable superState) {
-            super(superState);
-        }
-
-        private SavedState(Parcel in) {
-            super(in);
-            this.currentIndex = in.readInt();
-            this.descriptionTextColor = in.readInt();
-            this.descriptionTextSize = in.readInt();
-            this.numberBackgroundResId = in.readInt();
-            this.numberTextSize = in.readInt();
-            this.numberTextColor = in.readInt();
-            this.numberSize = in.readInt();
-            this.doneIconResId = in.readInt();
-            this.doneBackgroundResId = in.readInt();
-            this.lineActiveColor = in.readInt();
-            this.lineInactiveColor = in.readInt();
-            this.lineHeight = in.readInt();
-            this.lineLength = in.readInt();
-            this.lineDashCount = in.readInt();
-            this.isStepClickable = in.readInt() != 0;
-            this.descriptionStringList = restoreDescriptionStringList(in);
-            this.descriptionResIdList = restoreDescriptionResIdList(in);
-        }
-
-        private List<String> restoreDescriptionStringList(Parcel in) {
-            List<String> descriptionStringList = in.createStringArrayList();
-            in.readStringList(descriptionStringList);
-            return descriptionStringList;
-        }
-
-        private List<Integer> restoreDescriptionResIdList(Parcel in) {
-            int[] descriptionResIds = in.createIntArray();
-            in.readIntArray(descriptionResIds);
-            descriptionResIdList = new ArrayList<>();
-            for (int descriptionResId : descriptionResIds) {
-                descriptionResIdList.add(descriptionResId);
-            }
-            return descriptionResIdList;
+        if (!ss.isValid) {
+            return;
         }
-
-        @Override
-        public void writeToParcel(Parcel out, int flags) {
-            super.writeToParcel(out, flags);
-            out.writeInt(this.currentIndex);
-            out.writeInt(this.descriptionTextColor);
-            out.writeInt(this.descriptionTextSize);
-            out.writeInt(this.numberBackgroundResId);
-            out.writeInt(this.numberTextSize);
-            out.writeInt(this.numberTextColor);
-            out.writeInt(this.numberSize);
-            out.writeInt(this.doneIconResId);
-            out.writeInt(this.doneBackgroundResId);
-            out.writeInt(this.lineActiveColor);
-            out.writeInt(this.lineInactiveColor);
-            out.writeInt(this.lineHeight);
-            out.writeInt(this.lineLength);
-            out.writeInt(this.lineDashCount);
-            out.writeInt(this.isStepClickable ? 1 : 0);
-            out.writeStringArray(saveDescriptionStringList(this.descriptionStringList));
-            out.writeIntArray(saveDescriptionResIdList(this.descriptionResIdList));
-        }
-
-        private String[] saveDescriptionStringList(List<String> descriptionStringList) {
-            if( descriptionStringList != null ){
-                String[] descriptionStrings = new String[descriptionStringList.size()];
-                for (int index = 0; index < descriptionStringList.size(); index++) {
-                    String descriptionString = descriptionStringList.get(index);
-                    descriptionStrings[index] = descriptionString;
-                }
-                return descriptionStrings;
+        if (ss.hasSameStructure(getStyle(), stepStore)) {
+            // Step views were already created with the same style and description
+            // (e.g. after configuration change), so only the state has to be restored.
+            if (isStepClickable != ss.isStepClickable) {
+                setStepClickable(ss.isStepClickable);
             }
-            return null;
+            updateCurrentIndex(ss.currentIndex, false);
+            return;
         }
-
-        private int[] saveDescriptionResIdList(List<Integer> descriptionResIdList) {
-            if( descriptionResIdList != null ){
-                int[] descriptionResIds = new int[descriptionResIdList.size()];
-                for (int index = 0; index < descriptionResIdList.size(); index++) {
-                    Integer descriptionResId = descriptionResIdList.get(index);
-                    descriptionResIds[index] = descriptionResId;
-                }
-                return descriptionResIds;
-            }
-            return null;
+        setStyle(ss.style);
+        this.currentIndex = ss.currentIndex;
+        this.isStepClickable = ss.isStepClickable;
+        if (stepModel == null) {
+            stepStore.set(ss.stepStore);
         }
-
-        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
-            public SavedState createFromParcel(Parcel in) {
-                return new SavedState(in);
-            }
-
-            public SavedState[] newArray(int size) {
-                return new SavedState[size];
-            }
-        };
+        rebuildView();
     }
 
     private static class StepProperty {
         View rootView;
+        FrameLayout layoutNumberContainer;
         TextView tvNumber;
+        StepDescriptionView viewDescription;
         View viewLeftDivider;
         View viewRightDivider;
+        LineDrawable leftLineDrawable;
+        LineDrawable rightLineDrawable;
         ImageView ivDone;
-        boolean isActive;
-        boolean isActiveWithLastIndex;
+        String description;
+        int index;
+        int numberBackgroundResId;
+        int doneIconResId;
+        int doneIconSize;
+        int doneBackgroundResId;
+        int stepState;
+        ColorStateList defaultNumberTextColor;
+        ColorStateList defaultDescriptionTextColor;
 
         StepProperty() {
         }
@@ -843,6 +2043,30 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
             this.rootView = rootView;
         }
 
+        FrameLayout getNumberContainerView() {
+            return layoutNumberContainer;
+        }
+
+        void setNumberContainerView(FrameLayout layoutNumberContainer) {
+            this.layoutNumberContainer = layoutNumberContainer;
+        }
+
+        StepDescriptionView getDescriptionView() {
+            return viewDescription;
+        }
+
+        void setDescriptionView(StepDescriptionView viewDescription) {
+            this.viewDescription = viewDescription;
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        void setDescription(String description) {
+            this.description = description;
+        }
+
         TextView getNumberTextView() {
             return tvNumber;
         }
@@ -867,6 +2091,22 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
             this.viewRightDivider = viewRightDivider;
         }
 
+        LineDrawable getLeftLineDrawable() {
+            return leftLineDrawable;
+        }
+
+        void setLeftLineDrawable(LineDrawable leftLineDrawable) {
+            this.leftLineDrawable = leftLineDrawable;
+        }
+
+        LineDrawable getRightLineDrawable() {
+            return rightLineDrawable;
+        }
+
+        void setRightLineDrawable(LineDrawable rightLineDrawable) {
+            this.rightLineDrawable = rightLineDrawable;
+        }
+
         ImageView getDoneImageView() {
             return ivDone;
         }
@@ -875,20 +2115,68 @@ public class FlexyStepIndicator extends LinearLayout implements View.OnClickList
             this.ivDone = ivDone;
         }
 
-        boolean isActive() {
-            return isActive;
+        int getIndex() {
+            return index;
+        }
+
+        void setIndex(int index) {
+            this.index = index;
+        }
+
+        int getNumberBackgroundResId() {
+            return numberBackgroundResId;
+        }
+
+        void setNumberBackgroundResId(int numberBackgroundResId) {
+            this.numberBackgroundResId = numberBackgroundResId;
+        }
+
+        int getDoneIconResId() {
+            return doneIconResId;
+        }
+
+        void setDoneIconResId(int doneIconResId) {
+            this.doneIconResId = doneIconResId;
+        }
+
+        int getDoneIconSize() {
+            return doneIconSize;
+        }
+
+        void setDoneIconSize(int doneIconSize) {
+            this.doneIconSize = doneIconSize;
+        }
+
+        int getDoneBackgroundResId() {
+            return doneBackgroundResId;
+        }
+
+        void setDoneBackgroundResId(int doneBackgroundResId) {
+            this.doneBackgroundResId = doneBackgroundResId;
+        }
+
+        int getStepState() {
+            return stepState;
+        }
+
+        void setStepState(int stepState) {
+            this.stepState = stepState;
+        }
+
+        ColorStateList getDefaultNumberTextColor() {
+            return defaultNumberTextColor;
         }
 
-        void setActive(boolean active) {
-            isActive = active;
+        void setDefaultNumberTextColor(ColorStateList defaultNumberTextColor) {
+            this.defaultNumberTextColor = defaultNumberTextColor;
         }
 
-        boolean isActiveWithLastIndex() {
-            return isActiveWithLastIndex;
+        ColorStateList getDefaultDescriptionTextColor() {
+            return defaultDescriptionTextColor;
         }
 
-        void setActiveWithLastIndex(boolean activeWithLastIndex) {
-            isActiveWithLastIndex = activeWithLastIndex;
+        void setDefaultDescriptionTextColor(ColorStateList defaultDescriptionTextColor) {
+            this.defaultDescriptionTextColor = defaultDescriptionTextColor;
         }
     }
 
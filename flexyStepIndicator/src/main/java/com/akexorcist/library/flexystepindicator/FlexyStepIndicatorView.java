@@ -0,0 +1,1631 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.AsyncTask;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcelable;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.support.v4.widget.ExploreByTouchHelper;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.accessibility.AccessibilityEvent;
+import android.widget.OverScroller;
+
+import com.akexorcist.library.flexystepindicator.FlexyStepIndicator.StepClickListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Single view version of {@link FlexyStepIndicator}.
+ * <p/>
+ * Number, done icon, step line and description of every step are drawn directly
+ * on the canvas with precomputed geometry instead of inflating the child views,
+ * so it's cheaper to measure, layout and draw when the indicator has many steps.
+ * Only the visible steps are drawn, and the view can be scrolled horizontally when
+ * the steps can't fit in its width, so it can handle hundreds of steps.
+ * It support the same styleable attributes and setters as {@link FlexyStepIndicator}.
+ */
+
+@SuppressWarnings({"unused", "DefaultFileTemplate"})
+public class FlexyStepIndicatorView extends View {
+    private static final int DEFAULT_COLOR = Color.parseColor("#DDDDDD");
+    private static final int DEFAULT_TEXT_COLOR = Color.BLACK;
+    private static final int DEFAULT_TRANSITION_DURATION = 300;
+    private static final int[] STATE_SELECTED = new int[]{android.R.attr.state_selected};
+    private static final int[] STATE_NORMAL = new int[]{};
+
+    private final StepStore stepStore = new StepStore();
+    private int currentIndex = -1;
+    private int descriptionTextColor;
+    private int descriptionTextSize;
+    private int numberBackgroundResId;
+    private int numberTextSize;
+    private int numberTextColor;
+    private int numberSize;
+    private int doneIconResId;
+    private int doneBackgroundResId;
+    private int lineActiveColor;
+    private int lineInactiveColor;
+    private int lineHeight;
+    private int lineLength;
+    private int lineDashCount;
+    private int errorColor;
+    private boolean isStepClickable;
+    private StepModel stepModel;
+
+    private StepClickListener stepClickListener;
+    private RenderMetricsListener renderMetricsListener;
+    private RenderMetrics renderMetrics;
+
+    // Render resources
+    private final LineDrawable lineDrawable = new LineDrawable(new LineDrawable.LinePainter() {
+        @Override
+        public void drawActiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+            FlexyStepIndicatorView.this.drawActiveLine(canvas, dashCount, lineHeight, lineLength, paint);
+        }
+
+        @Override
+        public void drawInactiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+            FlexyStepIndicatorView.this.drawInactiveLine(canvas, dashCount, lineHeight, lineLength, paint);
+        }
+    });
+    private final TextPaint numberPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint descriptionPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private Drawable numberBackgroundDrawable;
+    private Drawable doneBackgroundDrawable;
+    private ColorStateList numberTextColorList;
+    private ColorStateList descriptionTextColorList;
+    private ColorStateList errorColorList;
+    private final SparseIntArray stepIconResArray = new SparseIntArray();
+    private final SparseArray<Drawable> stepIconDrawableArray = new SparseArray<>();
+    private final SparseArray<StaticLayout> descriptionLayoutArray = new SparseArray<>();
+    private final char[] numberBuffer = new char[11];
+
+    // Precomputed geometry
+    private final StepGeometry stepGeometry = new StepGeometry();
+    private final int[] stepBounds = new int[4];
+    private int stepCount;
+    private int numberMargin;
+    private int descriptionMargin;
+
+    // Scroll and touch
+    private OverScroller scroller;
+    private VelocityTracker velocityTracker;
+    private int touchSlop;
+    private int minimumFlingVelocity;
+    private int maximumFlingVelocity;
+    private float downTouchX;
+    private float lastTouchX;
+    private boolean isDragging;
+    private int pressedIndex = -1;
+
+    // Accessibility
+    private StepAccessibilityHelper accessibilityHelper;
+
+    // Async step preparation
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int stepPrepareGeneration;
+
+    // Style update
+    private int styleUpdateDepth;
+    private boolean isStyleUpdatePending;
+    private final Runnable styleUpdateRunnable = new Runnable() {
+        @Override
+        public void run() {
+            performStyleUpdate();
+        }
+    };
+
+    // Step transition
+    private boolean isStepTransitionEnabled;
+    private int stepTransitionDuration;
+    private ValueAnimator stepTransitionAnimator;
+    private int transitionFromIndex;
+    private float transitionFromPosition;
+    private float transitionPosition;
+
+    private final StepModel.Observer stepModelObserver = new StepModel.Observer() {
+        @Override
+        public void onStepSetChanged() {
+            currentIndex = -1;
+            cancelStepTransition();
+            updateStepLayout();
+        }
+
+        @Override
+        public void onStepRangeChanged(int startIndex, int count) {
+            updateStepRangeChanged(startIndex, count);
+        }
+
+        @Override
+        public void onStepRangeInserted(int startIndex, int count) {
+            updateStepRangeInserted(startIndex, count);
+        }
+
+        @Override
+        public void onStepRangeRemoved(int startIndex, int count) {
+            updateStepRangeRemoved(startIndex, count);
+        }
+    };
+
+    public FlexyStepIndicatorView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        setup(attrs);
+    }
+
+    public FlexyStepIndicatorView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        setup(attrs);
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public FlexyStepIndicatorView(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        setup(attrs);
+    }
+
+    private void setup(AttributeSet attrs) {
+        numberMargin = getResources().getDimensionPixelSize(R.dimen.flexy_step_number_margin);
+        descriptionMargin = getResources().getDimensionPixelSize(R.dimen.flexy_step_description_margin);
+        numberPaint.setTextAlign(Paint.Align.CENTER);
+        ViewConfiguration configuration = ViewConfiguration.get(getContext());
+        touchSlop = configuration.getScaledTouchSlop();
+        minimumFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        maximumFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        scroller = new OverScroller(getContext());
+        stepTransitionAnimator = ValueAnimator.ofFloat(0, 1);
+        stepTransitionAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                updateStepTransition(animation.getAnimatedFraction());
+            }
+        });
+        setHorizontalScrollBarEnabled(true);
+        accessibilityHelper = new StepAccessibilityHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, accessibilityHelper);
+        setupStyleable(attrs);
+        updateRenderResource();
+        updateStepLayout();
+    }
+
+    private void setupStyleable(AttributeSet attrs) {
+        TypedArray typedArray = getContext().obtainStyledAttributes(attrs, R.styleable.FlexyStepIndicator);
+        descriptionTextColor = typedArray.getResourceId(R.styleable.FlexyStepIndicator_flexy_descriptionTextColor, -1);
+        descriptionTextSize = (int) typedArray.getDimension(R.styleable.FlexyStepIndicator_flexy_descriptionTextSize, 16);
+        numberBackgroundResId = typedArray.getResourceId(R.styleable.FlexyStepIndicator_flexy_numberBackgroundDrawable, -1);
+        numberTextSize = (int) typedArray.getDimension(R.styleable.FlexyStepIndicator_flexy_numberTextSize, 16);
+        numberTextColor = typedArray.getResourceId(R.styleable.FlexyStepIndicator_flexy_numberTextColor, -1);
+        numberSize = (int) typedArray.getDimension(R.styleable.FlexyStepIndicator_flexy_numberSize, 30);
+        doneIconResId = typedArray.getResourceId(R.styleable.FlexyStepIndicator_flexy_doneIconDrawable, -1);
+        doneBackgroundResId = typedArray.getResourceId(R.styleable.FlexyStepIndicator_flexy_doneBackgroundDrawable, -1);
+        lineActiveColor = typedArray.getColor(R.styleable.FlexyStepIndicator_flexy_lineActiveColor, DEFAULT_COLOR);
+        lineInactiveColor = typedArray.getColor(R.styleable.FlexyStepIndicator_flexy_lineInactiveColor, DEFAULT_COLOR);
+        lineHeight = (int) typedArray.getDimension(R.styleable.FlexyStepIndicator_flexy_lineHeight, 4);
+        lineLength = (int) typedArray.getDimension(R.styleable.FlexyStepIndicator_flexy_lineLength, 30);
+        lineDashCount = typedArray.getInt(R.styleable.FlexyStepIndicator_flexy_lineDashCount, 5);
+        stepStore.setTexts(typedArray.getTextArray(R.styleable.FlexyStepIndicator_flexy_steps));
+        isStepTransitionEnabled = typedArray.getBoolean(R.styleable.FlexyStepIndicator_flexy_transitionEnabled, false);
+        stepTransitionDuration = typedArray.getInt(R.styleable.FlexyStepIndicator_flexy_transitionDuration, DEFAULT_TRANSITION_DURATION);
+        errorColor = typedArray.getColor(R.styleable.FlexyStepIndicator_flexy_errorColor, FlexyStyle.DEFAULT_ERROR_COLOR);
+        typedArray.recycle();
+    }
+
+    /**
+     * Set current step index that will be selected.
+     * <p/>
+     * When all of the steps can't fit in the view, the view will be scrolled
+     * smoothly to show the selected step.
+     *
+     * @param selectedIndex an index of the step. The step will be set to all done
+     *                      if current step index is more than actual step size
+     */
+    public void setCurrentIndex(int selectedIndex) {
+        // Continue from where the running transition is, not from its target
+        float previousPosition = getTransitionPosition();
+        this.currentIndex = selectedIndex;
+        accessibilityHelper.invalidateRoot();
+        smoothScrollToStep(selectedIndex);
+        if (isStepTransitionEnabled && previousPosition != selectedIndex && stepCount > 0) {
+            startStepTransition(previousPosition);
+        } else {
+            cancelStepTransition();
+            invalidate();
+        }
+    }
+
+    /**
+     * Set animated transition when current step index was changed.
+     * <p/>
+     * The step line will be filled progressively and the number will be cross-faded
+     * to the done icon. Only the steps that changed their state will be redrawn.
+     *
+     * @param enabled a boolean of step transition enabled state
+     */
+    public void setStepTransitionEnabled(boolean enabled) {
+        this.isStepTransitionEnabled = enabled;
+        if (!enabled) {
+            cancelStepTransition();
+        }
+    }
+
+    /**
+     * Get animated transition enabled state
+     *
+     * @return the animated transition enabled state
+     */
+    public boolean isStepTransitionEnabled() {
+        return isStepTransitionEnabled;
+    }
+
+    /**
+     * Set duration of the animated transition
+     *
+     * @param duration a duration of the animated transition (ms)
+     */
+    public void setStepTransitionDuration(int duration) {
+        this.stepTransitionDuration = duration;
+    }
+
+    /**
+     * Scroll the view smoothly to show the expected step in the center of the view.
+     *
+     * @param index an index of the step
+     */
+    public void smoothScrollToStep(int index) {
+        int scrollX = getStepScrollX(index);
+        if (scrollX != getScrollX()) {
+            scroller.forceFinished(true);
+            scroller.startScroll(getScrollX(), 0, scrollX - getScrollX(), 0);
+            invalidate();
+        }
+    }
+
+    /**
+     * Get current selected step index
+     *
+     * @return the selected step index
+     */
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    /**
+     * Set all step to done
+     */
+    public void setAllStepDone() {
+        setCurrentIndex(stepCount + 1);
+    }
+
+    /**
+     * Set description text color with color resource.
+     * You can use selector to set difference color when step is active
+     * or use color resource directly
+     *
+     * @param resId a color resource
+     */
+    public void setStepDescriptionTextColorRes(int resId) {
+        this.descriptionTextColor = resId;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set step description text size.
+     *
+     * @param size a size of step description text (px)
+     */
+    public void setStepDescriptionTextSize(int size) {
+        this.descriptionTextSize = size;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set step number text background with drawable resource
+     * You can use selector to set difference drawable when step is active
+     * or use drawable resource directly
+     *
+     * @param resId a resource id of drawable
+     */
+    public void setNumberBackgroundDrawableRes(int resId) {
+        this.numberBackgroundResId = resId;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set step number text size.
+     *
+     * @param size a size of step number text (px)
+     */
+    public void setNumberTextSize(int size) {
+        this.numberTextSize = size;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set step number text color with color resource.
+     * You can use selector to set difference color when step is active
+     * or use color resource directly
+     *
+     * @param resId a color resource
+     */
+    public void setNumberTextColorRes(int resId) {
+        this.numberTextColor = resId;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set done icon/symbol with drawable resource
+     * You can use selector to set difference drawable when step is active
+     * or use drawable resource directly
+     *
+     * @param resId a resource id of drawable
+     */
+    public void setDoneIconDrawableRes(int resId) {
+        this.doneIconResId = resId;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set icon of the step that will be shown instead of done icon drawable when the step is done.
+     * <p/>
+     * Icon is decoded only once at the number size when any step that use it is drawn as done,
+     * then it's shared by every step and indicator. Icon from the step model will be used first if it has.
+     *
+     * @param index an index of the step
+     * @param resId a resource id of drawable or -1 to use done icon drawable
+     */
+    public void setStepIconDrawableRes(int index, int resId) {
+        if (resId == -1) {
+            stepIconResArray.delete(index);
+        } else {
+            stepIconResArray.put(index, resId);
+        }
+        if (index >= 0 && index < stepCount) {
+            invalidate(stepGeometry.getStepLeft(index), 0, stepGeometry.getStepRight(index), getHeight());
+        }
+    }
+
+    /**
+     * Get icon of the step that was set with {@link #setStepIconDrawableRes(int, int)}
+     *
+     * @param index an index of the step
+     * @return the resource id of drawable or -1 if the step uses done icon drawable
+     */
+    public int getStepIconDrawableRes(int index) {
+        return stepIconResArray.get(index, -1);
+    }
+
+    /**
+     * Remove icon of every step, so all of the steps use done icon drawable
+     */
+    public void clearStepIconDrawableRes() {
+        stepIconResArray.clear();
+        invalidate();
+    }
+
+    /**
+     * Set done icon/symbol background with drawable resource
+     * You can use selector to set difference drawable when step is active
+     * or use drawable resource directly
+     *
+     * @param resId a resource id of drawable
+     */
+    public void setDoneBackgroundDrawableRes(int resId) {
+        this.doneBackgroundResId = resId;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set height of the step line
+     *
+     * @param height a height of the step line (px)
+     */
+    public void setLineHeight(int height) {
+        this.lineHeight = height;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set length of the step line.
+     * This length should be the total of both line side (left and right)
+     *
+     * @param length a length of the step line (px)
+     */
+    public void setLineLength(int length) {
+        this.lineLength = length;
+        requestStyleUpdate();
+    }
+
+    /**
+     * Set number of dash in the step line
+     * This number should be the total of both line side (left and right)
+     *
+     * @param lineDashCount a number of dash in the step line
+     */
+    public void setLineDashCount(int lineDashCount) {
+        this.lineDashCount = lineDashCount;
+        invalidate();
+    }
+
+    /**
+     * Set step line color with color resource when active
+     *
+     * @param color a color
+     */
+    public void setLineActiveColor(int color) {
+        this.lineActiveColor = color;
+        invalidate();
+    }
+
+    /**
+     * Set step line color with color resource when inactive
+     *
+     * @param color a color
+     */
+    public void setLineInactiveColor(int color) {
+        this.lineInactiveColor = color;
+        invalidate();
+    }
+
+    /**
+     * Set color of number and description text of the step that has error state
+     * in {@link StepModel}
+     *
+     * @param color a color
+     */
+    public void setErrorColor(int color) {
+        this.errorColor = color;
+        this.errorColorList = ColorStateList.valueOf(color);
+        invalidate();
+    }
+
+    /**
+     * Start to batch the style update.
+     * <p/>
+     * Every style setter that called after this method won't re-render the indicator
+     * until {@link #endStyleUpdate()} was called, then the indicator will be re-rendered once.
+     * <pre>
+     * {@code
+     * indicator.beginStyleUpdate();
+     * indicator.setLineHeight(lineHeight);
+     * indicator.setLineLength(lineLength);
+     * indicator.setNumberTextSize(numberTextSize);
+     * indicator.endStyleUpdate();
+     * }
+     * </pre>
+     * Style setter that called outside the batch will be re-rendered in next frame,
+     * so calling many setters in a row still cause only one re-render.
+     */
+    public void beginStyleUpdate() {
+        styleUpdateDepth++;
+    }
+
+    /**
+     * Finish the style update that started by {@link #beginStyleUpdate()}
+     * and re-render the indicator if any style was changed
+     */
+    public void endStyleUpdate() {
+        if (styleUpdateDepth > 0) {
+            styleUpdateDepth--;
+        }
+        if (styleUpdateDepth == 0 && isStyleUpdatePending) {
+            removeCallbacks(styleUpdateRunnable);
+            performStyleUpdate();
+        }
+    }
+
+    /**
+     * Apply all of the style to the indicator with single re-render
+     *
+     * @param style a style of the indicator
+     */
+    public void applyStyle(FlexyStyle style) {
+        beginStyleUpdate();
+        setStyle(style);
+        requestStyleUpdate();
+        endStyleUpdate();
+    }
+
+    private void setStyle(FlexyStyle style) {
+        this.descriptionTextColor = style.getStepDescriptionTextColorRes();
+        this.descriptionTextSize = style.getStepDescriptionTextSize();
+        this.numberBackgroundResId = style.getNumberBackgroundDrawableRes();
+        this.numberTextSize = style.getNumberTextSize();
+        this.numberTextColor = style.getNumberTextColorRes();
+        this.numberSize = style.getNumberSize();
+        this.doneIconResId = style.getDoneIconDrawableRes();
+        this.doneBackgroundResId = style.getDoneBackgroundDrawableRes();
+        this.lineActiveColor = style.getLineActiveColor();
+        this.lineInactiveColor = style.getLineInactiveColor();
+        this.lineHeight = style.getLineHeight();
+        this.lineLength = style.getLineLength();
+        this.lineDashCount = style.getLineDashCount();
+        this.errorColor = style.getErrorColor();
+    }
+
+    /**
+     * Get current style of the indicator
+     *
+     * @return the style of the indicator
+     */
+    public FlexyStyle getStyle() {
+        return new FlexyStyle.Builder()
+                .setStepDescriptionTextColorRes(descriptionTextColor)
+                .setStepDescriptionTextSize(descriptionTextSize)
+                .setNumberBackgroundDrawableRes(numberBackgroundResId)
+                .setNumberTextSize(numberTextSize)
+                .setNumberTextColorRes(numberTextColor)
+                .setNumberSize(numberSize)
+                .setDoneIconDrawableRes(doneIconResId)
+                .setDoneBackgroundDrawableRes(doneBackgroundResId)
+                .setLineActiveColor(lineActiveColor)
+                .setLineInactiveColor(lineInactiveColor)
+                .setLineHeight(lineHeight)
+                .setLineLength(lineLength)
+                .setLineDashCount(lineDashCount)
+                .setErrorColor(errorColor)
+                .build();
+    }
+
+    /**
+     * Set step view can be clickable or not
+     *
+     * @param clickable a boolean of step view clickable state
+     */
+    public void setStepClickable(boolean clickable) {
+        this.isStepClickable = clickable;
+        accessibilityHelper.invalidateRoot();
+    }
+
+    /**
+     * Get step view clickable state
+     *
+     * @return the step view clickable state
+     */
+    public boolean isStepClickable() {
+        return this.isStepClickable;
+    }
+
+    /**
+     * Set event listener for step view click event
+     *
+     * @param listener a step click listener
+     */
+    public void setStepClickListener(StepClickListener listener) {
+        this.stepClickListener = listener;
+    }
+
+    /**
+     * Set listener to receive timing and counters of each render operation.
+     * <p/>
+     * The metrics aren't collected when listener is null (default),
+     * so it won't cost anything when it's disabled.
+     *
+     * @param listener a render metrics listener or null to disable it
+     */
+    public void setRenderMetricsListener(RenderMetricsListener listener) {
+        this.renderMetricsListener = listener;
+        this.renderMetrics = listener != null ? new RenderMetrics() : null;
+    }
+
+    /**
+     * Set description with string resource id to show in step view.
+     * <p/>
+     * This method should be called to setup step view
+     * Step view won't show if you didn't call this method or
+     * {@link #setStepDescriptionList(List String descriptionList)} method
+     *
+     * @param descriptionList List of string resource for step description
+     */
+    public void setStepDescriptionResourceList(List<Integer> descriptionList) {
+        stepStore.setResIds(descriptionList);
+        onStepDescriptionChanged();
+    }
+
+    /**
+     * Set description with string resource id to show in step view.
+     * <p/>
+     * Same as {@link #setStepDescriptionResourceList(List Integer descriptionList)}
+     * without boxing the resource id
+     *
+     * @param descriptionResIds Array of string resource for step description
+     */
+    public void setStepDescriptionResourceList(int[] descriptionResIds) {
+        stepStore.setResIds(descriptionResIds);
+        onStepDescriptionChanged();
+    }
+
+    /**
+     * Set description with string to show in step view.
+     * <p/>
+     * This method should be called to setup step view
+     * Step view won't show if you didn't call this method or
+     * {@link #setStepDescriptionResourceList(List Integer descriptionList)} method
+     *
+     * @param descriptionList List of string for step description
+     */
+    public void setStepDescriptionList(List<String> descriptionList) {
+        stepStore.setTexts(descriptionList);
+        onStepDescriptionChanged();
+    }
+
+    /**
+     * Set description with text to show in step view.
+     * <p/>
+     * Same as {@link #setStepDescriptionList(List String descriptionList)}
+     * without creating the list
+     *
+     * @param descriptions Array of text for step description
+     */
+    public void setStepDescriptionList(CharSequence[] descriptions) {
+        stepStore.setTexts(descriptions);
+        onStepDescriptionChanged();
+    }
+
+    private void onStepDescriptionChanged() {
+        stepPrepareGeneration++;
+        clearStepModel();
+        currentIndex = -1;
+        cancelStepTransition();
+        updateStepLayout();
+    }
+
+    /**
+     * Set step model to show its steps in step view.
+     * <p/>
+     * Description, icon and state of each step will be taken from the model
+     * instead of description list. Call {@code notify*} methods of the model when
+     * the steps were changed, so only the steps that were changed will be measured
+     * and redrawn, and current step index will stay at the same step.
+     *
+     * @param model a step model or null to remove the steps
+     */
+    public void setStepModel(StepModel model) {
+        stepPrepareGeneration++;
+        clearStepModel();
+        this.stepModel = model;
+        if (model != null) {
+            model.registerObserver(stepModelObserver);
+        }
+        stepStore.clear();
+        currentIndex = -1;
+        cancelStepTransition();
+        updateStepLayout();
+    }
+
+    /**
+     * Get current step model
+     *
+     * @return the step model or null if steps were set by description list
+     */
+    public StepModel getStepModel() {
+        return stepModel;
+    }
+
+    private void clearStepModel() {
+        if (stepModel != null) {
+            stepModel.unregisterObserver(stepModelObserver);
+            stepModel = null;
+        }
+    }
+
+    /**
+     * Description height can only grow with the changed steps or the steps that become visible, it will be
+     * measured from the visible steps again when {@link StepModel#notifyDataSetChanged()}
+     * was called, so the delta update doesn't have to measure the steps that weren't changed.
+     */
+    private void updateStepRangeChanged(int startIndex, int count) {
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        int firstIndex = Math.max(0, startIndex);
+        int lastIndex = Math.min(stepCount, startIndex + count) - 1;
+        if (firstIndex > lastIndex) {
+            return;
+        }
+        for (int index = firstIndex; index <= lastIndex; index++) {
+            descriptionLayoutArray.remove(index);
+        }
+        if (updateDescriptionHeight(firstIndex, lastIndex)) {
+            requestLayout();
+        }
+        invalidate(stepGeometry.getStepLeft(firstIndex), 0, stepGeometry.getStepRight(lastIndex), getHeight());
+        accessibilityHelper.invalidateRoot();
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_STEP_MODEL, startTime);
+        }
+    }
+
+    private void updateStepRangeInserted(int startIndex, int count) {
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        startIndex = Math.max(0, Math.min(startIndex, stepCount));
+        stepCount += count;
+        stepGeometry.setStepCount(stepCount);
+        currentIndex = StepModel.getIndexAfterInserted(currentIndex, startIndex, count);
+        StepModel.shiftStepValues(stepIconResArray, startIndex, count);
+        cancelStepTransition();
+        descriptionLayoutArray.clear();
+        updateVisibleDescriptionHeight();
+        onStepCountChanged(startTime);
+    }
+
+    private void updateStepRangeRemoved(int startIndex, int count) {
+        startIndex = Math.max(0, startIndex);
+        int endIndex = Math.min(stepCount, startIndex + count);
+        if (startIndex >= endIndex) {
+            return;
+        }
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        stepCount -= endIndex - startIndex;
+        stepGeometry.setStepCount(stepCount);
+        currentIndex = StepModel.getIndexAfterRemoved(currentIndex, startIndex, endIndex - startIndex);
+        StepModel.shiftStepValues(stepIconResArray, endIndex, startIndex - endIndex);
+        cancelStepTransition();
+        descriptionLayoutArray.clear();
+        onStepCountChanged(startTime);
+    }
+
+    private void onStepCountChanged(long startTime) {
+        scrollTo(Math.min(getScrollX(), getMaxScrollX()), 0);
+        requestLayout();
+        invalidate();
+        accessibilityHelper.invalidateRoot();
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_STEP_MODEL, startTime);
+        }
+    }
+
+    /**
+     * @return true if description height was changed
+     */
+    private boolean updateDescriptionHeight(int firstIndex, int lastIndex) {
+        int height = stepGeometry.getDescriptionHeight();
+        for (int index = firstIndex; index <= lastIndex; index++) {
+            // Held text layout is reused, so the steps that are still visible while scrolling aren't looked up again
+            StaticLayout layout = getDescriptionLayout(index);
+            if (layout != null) {
+                height = Math.max(height, layout.getHeight());
+            }
+        }
+        if (height != stepGeometry.getDescriptionHeight()) {
+            stepGeometry.setDescriptionHeight(height);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Set description with string to show in step view without blocking the main thread.
+     * <p/>
+     * Text layout of the descriptions will be prepared on {@link AsyncTask#THREAD_POOL_EXECUTOR}
+     * then the steps will be swapped in on the main thread at once.
+     *
+     * @param descriptionList List of string for step description
+     * @param callback        a callback that will be called on the main thread when the steps was swapped in
+     */
+    public void prepareStepsAsync(List<String> descriptionList, StepPrepareCallback callback) {
+        prepareStepsAsync(descriptionList, AsyncTask.THREAD_POOL_EXECUTOR, callback);
+    }
+
+    /**
+     * Set description with string to show in step view without blocking the main thread.
+     * <p/>
+     * Text layout of the descriptions will be prepared with the executor
+     * then the steps will be swapped in on the main thread at once.
+     * Only the latest steps will be swapped in if this method or other description setter
+     * was called again before the preparation was done.
+     *
+     * @param descriptionList List of string for step description
+     * @param executor        an executor to prepare the steps
+     * @param callback        a callback that will be called on the main thread when the steps was swapped in
+     */
+    public void prepareStepsAsync(final List<String> descriptionList, Executor executor, final StepPrepareCallback callback) {
+        final int generation = ++stepPrepareGeneration;
+        final TextPaint paint = new TextPaint(descriptionPaint);
+        final int width = stepGeometry.getDescriptionWidth();
+        final int firstIndex = Math.max(0, stepGeometry.getFirstVisibleIndex(getScrollX(), getWidth()));
+        final int lastIndex = Math.max(0, stepGeometry.getLastVisibleIndex(getScrollX(), getWidth()));
+        final List<String> stepDescriptionList = new ArrayList<>(descriptionList);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final StepRenderModel model = StepRenderModel.create(stepDescriptionList, paint, width, firstIndex, lastIndex);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != stepPrepareGeneration) {
+                            return;
+                        }
+                        applyStepRenderModel(model);
+                        if (callback != null) {
+                            callback.onStepsPrepared();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void applyStepRenderModel(StepRenderModel model) {
+        stepStore.setTexts(model.getDescriptionList());
+        clearStepModel();
+        currentIndex = -1;
+        cancelStepTransition();
+        if (!model.isCompatible(descriptionPaint, stepGeometry.getDescriptionWidth())) {
+            // Style was changed while the model was preparing
+            updateStepLayout();
+            return;
+        }
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        updateStepGeometry();
+        descriptionLayoutArray.clear();
+        for (int position = 0; position < model.getDescriptionLayoutCount(); position++) {
+            descriptionLayoutArray.put(model.getDescriptionLayoutIndex(position), model.getDescriptionLayoutAt(position));
+        }
+        stepGeometry.setDescriptionHeight(model.getDescriptionHeight());
+        onStepLayoutChanged(startTime);
+    }
+
+    /**
+     * Check the step that should show the done icon instead of the number.
+     * <p/>
+     * You can custom code to design when the done icon can be shown depending on current
+     * step index as you want
+     *
+     * @param index         expect step index that will be custom in this method
+     * @param selectedIndex current step index that has selected
+     * @return true if the done icon should be shown
+     */
+    protected boolean isStepDone(int index, int selectedIndex) {
+        return index < selectedIndex;
+    }
+
+    /**
+     * Draw the step line with canvas when expect step is active
+     * <p/>
+     * The canvas was scaled and clipped to the step line area, so you can
+     * draw it as same as {@link FlexyStepIndicator#drawActiveLine(Canvas, int, int, int, Paint)}
+     *
+     * @param canvas     a canvas instance to draw the step line
+     * @param dashCount  a number of dash for the step line (include left and right side)
+     * @param lineHeight a size of step line height (px)
+     * @param lineLength a size of step line width in each side (px)
+     * @param paint      a paint instance to draw something on canvas
+     */
+    protected void drawActiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+        for (int i = 0; i < dashCount; i++) {
+            float x1 = StepGeometry.getDashStart(i, lineLength);
+            float x2 = x1 + lineLength;
+            canvas.drawRect(x1, 0, x2, lineHeight, paint);
+        }
+    }
+
+    /**
+     * Draw the step line with canvas when expect step is inactive
+     * <p/>
+     * The canvas was scaled and clipped to the step line area, so you can
+     * draw it as same as {@link FlexyStepIndicator#drawInactiveLine(Canvas, int, int, int, Paint)}
+     *
+     * @param canvas     a canvas instance to draw the step line
+     * @param dashCount  a number of dash for the step line (include left and right side)
+     * @param lineHeight a size of step line height (px)
+     * @param lineLength a size of step line width in each side (px)
+     * @param paint      a paint instance to draw something on canvas
+     */
+    protected void drawInactiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+        canvas.drawRect(0, 0, LineDrawable.getContentWidth(dashCount, lineLength), lineHeight, paint);
+    }
+
+    /**
+     * @param fromPosition a transition position to start from, it's between two steps
+     *                     when the previous transition was interrupted
+     */
+    private void startStepTransition(float fromPosition) {
+        if (stepTransitionAnimator.isRunning()) {
+            stepTransitionAnimator.cancel();
+            invalidate();
+        }
+        // State of the step that was passed halfway is taken from the side that transition is leaving,
+        // so its weight continues from the same value
+        transitionFromIndex = currentIndex >= fromPosition ? (int) Math.floor(fromPosition) : (int) Math.ceil(fromPosition);
+        transitionFromPosition = fromPosition;
+        transitionPosition = fromPosition;
+        stepTransitionAnimator.setDuration(stepTransitionDuration);
+        stepTransitionAnimator.start();
+    }
+
+    void updateStepTransition(float fraction) {
+        transitionPosition = transitionFromPosition + ((currentIndex - transitionFromPosition) * fraction);
+        invalidateStepTransition();
+    }
+
+    private void cancelStepTransition() {
+        if (stepTransitionAnimator.isRunning()) {
+            stepTransitionAnimator.cancel();
+            invalidate();
+        }
+    }
+
+    /**
+     * Invalidate only the area of the steps that changing their state.
+     */
+    private void invalidateStepTransition() {
+        int firstIndex = Math.max(0, Math.min(transitionFromIndex, currentIndex));
+        int lastIndex = Math.min(stepCount - 1, Math.max(transitionFromIndex, currentIndex));
+        if (firstIndex > lastIndex) {
+            return;
+        }
+        invalidate(stepGeometry.getStepLeft(firstIndex), 0, stepGeometry.getStepRight(lastIndex), getHeight());
+    }
+
+    private int getTransitionFromIndex() {
+        return stepTransitionAnimator.isRunning() ? transitionFromIndex : currentIndex;
+    }
+
+    float getTransitionPosition() {
+        return stepTransitionAnimator.isRunning() ? transitionPosition : currentIndex;
+    }
+
+    /**
+     * Get weight of the state that changing from one state to another state
+     * while the transition is passing through the step.
+     *
+     * @param fromState   a state before the transition
+     * @param toState     a state after the transition
+     * @param windowStart a transition position that the state start to change
+     * @return 0 for inactive state and 1 for active state
+     */
+    private float getTransitionWeight(boolean fromState, boolean toState, float windowStart) {
+        if (fromState == toState) {
+            return fromState ? 1 : 0;
+        }
+        float progress;
+        if (currentIndex >= transitionFromIndex) {
+            progress = transitionPosition - windowStart;
+        } else {
+            progress = windowStart + 1 - transitionPosition;
+        }
+        progress = Math.max(0, Math.min(1, progress));
+        return toState ? progress : 1 - progress;
+    }
+
+    private void requestStyleUpdate() {
+        if (isStyleUpdatePending) {
+            return;
+        }
+        isStyleUpdatePending = true;
+        if (styleUpdateDepth == 0) {
+            post(styleUpdateRunnable);
+        }
+    }
+
+    private void performStyleUpdate() {
+        isStyleUpdatePending = false;
+        updateRenderResource();
+        updateStepLayout();
+    }
+
+    private void updateRenderResource() {
+        numberPaint.setTextSize(numberTextSize);
+        descriptionPaint.setTextSize(descriptionTextSize);
+        numberTextColorList = getColorStateListResource(numberTextColor);
+        descriptionTextColorList = getColorStateListResource(descriptionTextColor);
+        numberBackgroundDrawable = getDrawableResource(numberBackgroundResId);
+        doneBackgroundDrawable = getDrawableResource(doneBackgroundResId);
+        errorColorList = ColorStateList.valueOf(errorColor);
+        stepIconDrawableArray.clear();
+    }
+
+    /**
+     * Only the description height of the visible steps was measured, so the cost of the layout
+     * doesn't grow with the number of steps. Description height can only grow with the steps that
+     * are scrolled into the view later. Text layout of description will be held by the view when
+     * the step is visible and released when it's out of the screen, so memory won't grow with
+     * the number of steps either. Text layouts come from {@link TextLayoutCache}, so the description
+     * that was measured once won't be measured again by any indicator.
+     */
+    private void updateStepLayout() {
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        updateStepGeometry();
+        descriptionLayoutArray.clear();
+        stepGeometry.setDescriptionHeight(0);
+        updateVisibleDescriptionHeight();
+        onStepLayoutChanged(startTime);
+    }
+
+    /**
+     * Width of the view is unknown before the first layout, so the steps that fit
+     * in the screen width will be measured instead.
+     *
+     * @return true if description height was changed
+     */
+    private boolean updateVisibleDescriptionHeight() {
+        int width = getWidth() > 0 ? getWidth() : getResources().getDisplayMetrics().widthPixels;
+        int firstIndex = stepGeometry.getFirstVisibleIndex(getScrollX(), width);
+        if (firstIndex == -1) {
+            return false;
+        }
+        int lastIndex = stepGeometry.getLastVisibleIndex(getScrollX(), width);
+        return updateDescriptionHeight(firstIndex, lastIndex);
+    }
+
+    private void updateStepGeometry() {
+        stepCount = 0;
+        if (stepModel != null) {
+            stepCount = stepModel.getStepCount();
+        } else {
+            stepCount = stepStore.size();
+        }
+        stepGeometry.setStyle(getStyle(), numberMargin, descriptionMargin);
+        stepGeometry.setStepCount(stepCount);
+        stepGeometry.setOrigin(getPaddingLeft(), getPaddingTop());
+    }
+
+    private void onStepLayoutChanged(long startTime) {
+        scrollTo(Math.min(getScrollX(), getMaxScrollX()), 0);
+        requestLayout();
+        invalidate();
+        accessibilityHelper.invalidateRoot();
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_UPDATE_INDICATOR_VIEW, startTime);
+        }
+    }
+
+    private void dispatchRenderMetrics(int operation, long startTime) {
+        renderMetrics.end(operation, startTime, stepCount);
+        renderMetricsListener.onRenderMetrics(renderMetrics);
+    }
+
+    private StaticLayout getDescriptionLayout(int index) {
+        StaticLayout layout = descriptionLayoutArray.get(index);
+        if (layout == null) {
+            String description = getDescriptionText(index);
+            if (description != null) {
+                layout = createDescriptionLayout(description, stepGeometry.getDescriptionWidth());
+                descriptionLayoutArray.put(index, layout);
+            }
+        }
+        return layout;
+    }
+
+    private void releaseInvisibleDescriptionLayout(int firstIndex, int lastIndex) {
+        for (int i = descriptionLayoutArray.size() - 1; i >= 0; i--) {
+            int index = descriptionLayoutArray.keyAt(i);
+            if (index < firstIndex || index > lastIndex) {
+                descriptionLayoutArray.removeAt(i);
+            }
+        }
+    }
+
+    private StaticLayout createDescriptionLayout(String description, int width) {
+        StaticLayout layout = TextLayoutCache.get(description, descriptionPaint, width, Layout.Alignment.ALIGN_CENTER);
+        if (layout == null) {
+            if (renderMetrics != null) {
+                renderMetrics.onTextLayoutCreated();
+            }
+            layout = TextLayoutCache.create(description, descriptionPaint, width, Layout.Alignment.ALIGN_CENTER);
+        }
+        return layout;
+    }
+
+    private String getDescriptionText(int index) {
+        if (stepModel != null) {
+            return stepModel.getStepDescription(index);
+        }
+        return stepStore.getDescription(getResources(), index);
+    }
+
+    private int getStepState(int index) {
+        return stepModel != null ? stepModel.getStepState(index) : StepModel.STEP_STATE_NORMAL;
+    }
+
+    private int getStepIconResId(int index) {
+        if (stepModel != null) {
+            int iconResId = stepModel.getStepIconRes(index);
+            if (iconResId != -1) {
+                return iconResId;
+            }
+        }
+        return stepIconResArray.get(index, doneIconResId);
+    }
+
+    /**
+     * Icon is resolved from {@link StepIconAtlas} when the first step that use it is drawn as done,
+     * then it's shared by the steps that use the same icon.
+     */
+    private Drawable getStepIconDrawable(int iconResId) {
+        if (iconResId == -1) {
+            return null;
+        }
+        Drawable drawable = stepIconDrawableArray.get(iconResId);
+        if (drawable == null) {
+            drawable = mutateDrawable(StepIconAtlas.getIcon(getContext(), iconResId, numberSize, renderMetrics));
+            stepIconDrawableArray.put(iconResId, drawable);
+        }
+        return drawable;
+    }
+
+    private ColorStateList getColorStateListResource(int resId) {
+        if (resId == -1) {
+            return ColorStateList.valueOf(DEFAULT_TEXT_COLOR);
+        }
+        return ResourceCache.getColorStateList(getContext(), resId);
+    }
+
+    private Drawable getDrawableResource(int resId) {
+        if (resId == -1) {
+            return null;
+        }
+        return mutateDrawable(ResourceCache.getDrawable(getContext(), resId));
+    }
+
+    /**
+     * Drawable from the caches shares its constant state with other views, while its alpha and state
+     * are changed on every draw. So it's mutated to be owned by this view only.
+     */
+    private Drawable mutateDrawable(Drawable drawable) {
+        return drawable != null ? drawable.mutate() : null;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        stepGeometry.setOrigin(getPaddingLeft(), getPaddingTop());
+        int width = stepGeometry.getContentWidth() + getPaddingLeft() + getPaddingRight();
+        int height = stepGeometry.getContentHeight() + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        cancelStepTransition();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        scroller.forceFinished(true);
+        scrollTo(getStepScrollX(getCurrentIndex()), 0);
+        if (updateVisibleDescriptionHeight()) {
+            requestLayout();
+        }
+    }
+
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        if (updateVisibleDescriptionHeight()) {
+            requestLayout();
+        }
+        // Bounds and visibility of the virtual step views were moved with the scroll
+        accessibilityHelper.invalidateRoot();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int firstIndex = stepGeometry.getFirstVisibleIndex(getScrollX(), getWidth());
+        if (firstIndex == -1) {
+            return;
+        }
+        long startTime = renderMetrics != null ? renderMetrics.begin() : 0;
+        int lastIndex = stepGeometry.getLastVisibleIndex(getScrollX(), getWidth());
+        releaseInvisibleDescriptionLayout(firstIndex, lastIndex);
+        for (int index = firstIndex; index <= lastIndex; index++) {
+            drawStep(canvas, index);
+            if (renderMetrics != null) {
+                renderMetrics.onStepUpdated();
+            }
+        }
+        if (renderMetrics != null) {
+            dispatchRenderMetrics(RenderMetrics.OPERATION_DRAW, startTime);
+        }
+    }
+
+    private void drawStep(Canvas canvas, int index) {
+        int fromIndex = getTransitionFromIndex();
+        float position = getTransitionPosition();
+        int stepState = getStepState(index);
+        boolean isSkipped = stepState == StepModel.STEP_STATE_SKIPPED;
+        ColorStateList numberColorList = stepState == StepModel.STEP_STATE_ERROR ? errorColorList : numberTextColorList;
+        ColorStateList descriptionColorList = stepState == StepModel.STEP_STATE_ERROR ? errorColorList : descriptionTextColorList;
+        float selectedWeight = getTransitionWeight(index <= fromIndex, index <= currentIndex, index - 1);
+        // Step that has error or was skipped is never shown as done
+        float doneWeight = stepState != StepModel.STEP_STATE_NORMAL ? 0 :
+                getTransitionWeight(isStepDone(index, fromIndex), isStepDone(index, currentIndex), index);
+
+        int[] bounds = stepBounds;
+        if (stepGeometry.hasStartLine(index)) {
+            stepGeometry.getStartLineBounds(index, bounds);
+            drawLine(canvas, bounds, true, isSkipped ? 0 : (position - index + 0.5f) * 2);
+        }
+        if (stepGeometry.hasEndLine(index)) {
+            stepGeometry.getEndLineBounds(index, bounds);
+            drawLine(canvas, bounds, false, isSkipped ? 0 : (position - index) * 2);
+        }
+
+        stepGeometry.getNumberBounds(index, bounds);
+        int numberLeft = bounds[StepGeometry.LEFT];
+        int numberTop = bounds[StepGeometry.TOP];
+        int iconResId = getStepIconResId(index);
+        boolean isDoneEnabled = iconResId != -1 || doneBackgroundDrawable != null;
+        if (!isDoneEnabled) {
+            drawNumber(canvas, index, numberLeft, numberTop, numberColorList, selectedWeight, 1);
+        } else {
+            if (doneWeight < 1) {
+                drawNumber(canvas, index, numberLeft, numberTop, numberColorList, selectedWeight, 1 - doneWeight);
+            }
+            if (doneWeight > 0) {
+                drawDone(canvas, getStepIconDrawable(iconResId), numberLeft, numberTop, selectedWeight, doneWeight);
+            }
+        }
+
+        StaticLayout descriptionLayout = getDescriptionLayout(index);
+        if (descriptionLayout != null) {
+            descriptionPaint.setColor(getStateColor(descriptionColorList, selectedWeight, 1));
+            stepGeometry.getDescriptionBounds(index, bounds);
+            canvas.save();
+            canvas.translate(bounds[StepGeometry.LEFT], bounds[StepGeometry.TOP]);
+            TextLayoutCache.draw(canvas, descriptionLayout, descriptionPaint);
+            canvas.restore();
+        }
+    }
+
+    private void drawLine(Canvas canvas, int[] bounds, boolean isMirror, float fillProgress) {
+        lineDrawable.setLineStyle(lineDashCount, lineLength, lineHeight, lineActiveColor, lineInactiveColor);
+        lineDrawable.setMirror(isMirror);
+        lineDrawable.setFillProgress(fillProgress);
+        lineDrawable.setBounds(bounds[StepGeometry.LEFT], bounds[StepGeometry.TOP],
+                bounds[StepGeometry.RIGHT], bounds[StepGeometry.BOTTOM]);
+        lineDrawable.draw(canvas);
+    }
+
+    private void drawDone(Canvas canvas, Drawable iconDrawable, int left, int top, float selectedWeight, float alpha) {
+        if (doneBackgroundDrawable != null) {
+            doneBackgroundDrawable.setBounds(left, top, left + numberSize, top + numberSize);
+            drawStateDrawable(canvas, doneBackgroundDrawable, selectedWeight, alpha);
+        }
+        if (iconDrawable != null) {
+            setFitCenterBounds(iconDrawable, left, top, numberSize);
+            drawStateDrawable(canvas, iconDrawable, selectedWeight, alpha);
+        }
+    }
+
+    private void drawNumber(Canvas canvas, int index, int left, int top, ColorStateList colorList, float selectedWeight, float alpha) {
+        if (numberBackgroundDrawable != null) {
+            numberBackgroundDrawable.setBounds(left, top, left + numberSize, top + numberSize);
+            drawStateDrawable(canvas, numberBackgroundDrawable, selectedWeight, alpha);
+        }
+        numberPaint.setColor(getStateColor(colorList, selectedWeight, alpha));
+        float x = left + (numberSize / 2f);
+        float y = top + (numberSize / 2f) - ((numberPaint.descent() + numberPaint.ascent()) / 2f);
+        int length = fillNumber(numberBuffer, index + 1);
+        canvas.drawText(numberBuffer, numberBuffer.length - length, length, x, y, numberPaint);
+    }
+
+    /**
+     * Draw the drawable with normal and selected state. Both of them will be cross-faded
+     * when the step is changing its selected state.
+     */
+    private void drawStateDrawable(Canvas canvas, Drawable drawable, float selectedWeight, float alpha) {
+        if (selectedWeight < 1) {
+            drawDrawable(canvas, drawable, STATE_NORMAL, (1 - selectedWeight) * alpha);
+        }
+        if (selectedWeight > 0) {
+            drawDrawable(canvas, drawable, STATE_SELECTED, selectedWeight * alpha);
+        }
+    }
+
+    private void drawDrawable(Canvas canvas, Drawable drawable, int[] state, float alpha) {
+        drawable.setState(state);
+        if (alpha < 1) {
+            drawable.setAlpha(Math.round(alpha * 255));
+            drawable.draw(canvas);
+            drawable.setAlpha(255);
+        } else {
+            drawable.draw(canvas);
+        }
+    }
+
+    private int getStateColor(ColorStateList colorList, float selectedWeight, float alpha) {
+        int normalColor = colorList.getColorForState(STATE_NORMAL, colorList.getDefaultColor());
+        int selectedColor = colorList.getColorForState(STATE_SELECTED, colorList.getDefaultColor());
+        int color = blendColor(normalColor, selectedColor, selectedWeight);
+        return (color & 0x00FFFFFF) | (Math.round(Color.alpha(color) * alpha) << 24);
+    }
+
+    private static int blendColor(int fromColor, int toColor, float fraction) {
+        if (fraction <= 0) {
+            return fromColor;
+        }
+        if (fraction >= 1) {
+            return toColor;
+        }
+        int alpha = (int) (Color.alpha(fromColor) + ((Color.alpha(toColor) - Color.alpha(fromColor)) * fraction));
+        int red = (int) (Color.red(fromColor) + ((Color.red(toColor) - Color.red(fromColor)) * fraction));
+        int green = (int) (Color.green(fromColor) + ((Color.green(toColor) - Color.green(fromColor)) * fraction));
+        int blue = (int) (Color.blue(fromColor) + ((Color.blue(toColor) - Color.blue(fromColor)) * fraction));
+        return Color.argb(alpha, red, green, blue);
+    }
+
+    /**
+     * Write the number at the end of the buffer to draw it without any String allocation
+     *
+     * @return length of the number in the buffer
+     */
+    private int fillNumber(char[] buffer, int number) {
+        int position = buffer.length;
+        do {
+            buffer[--position] = (char) ('0' + (number % 10));
+            number /= 10;
+        } while (number > 0);
+        return buffer.length - position;
+    }
+
+    private void setFitCenterBounds(Drawable drawable, int left, int top, int size) {
+        int intrinsicWidth = drawable.getIntrinsicWidth();
+        int intrinsicHeight = drawable.getIntrinsicHeight();
+        if (intrinsicWidth <= 0 || intrinsicHeight <= 0) {
+            drawable.setBounds(left, top, left + size, top + size);
+            return;
+        }
+        float scale = Math.min((float) size / intrinsicWidth, (float) size / intrinsicHeight);
+        int width = Math.round(intrinsicWidth * scale);
+        int height = Math.round(intrinsicHeight * scale);
+        int drawableLeft = left + ((size - width) / 2);
+        int drawableTop = top + ((size - height) / 2);
+        drawable.setBounds(drawableLeft, drawableTop, drawableLeft + width, drawableTop + height);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean isScrollable = getMaxScrollX() > 0;
+        if (!isStepClickable() && !isScrollable) {
+            return super.onTouchEvent(event);
+        }
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        velocityTracker.addMovement(event);
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                scroller.forceFinished(true);
+                downTouchX = event.getX();
+                lastTouchX = downTouchX;
+                isDragging = false;
+                pressedIndex = isStepClickable() ? getStepIndexAt(event.getX(), event.getY()) : -1;
+                return isScrollable || pressedIndex != -1;
+            case MotionEvent.ACTION_MOVE:
+                float x = event.getX();
+                if (!isDragging && isScrollable && Math.abs(x - downTouchX) > touchSlop) {
+                    isDragging = true;
+                    pressedIndex = -1;
+                    if (getParent() != null) {
+                        getParent().requestDisallowInterceptTouchEvent(true);
+                    }
+                }
+                if (isDragging) {
+                    scrollTo(clampScrollX(getScrollX() + Math.round(lastTouchX - x)), 0);
+                }
+                lastTouchX = x;
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (isDragging) {
+                    velocityTracker.computeCurrentVelocity(1000, maximumFlingVelocity);
+                    int velocityX = (int) velocityTracker.getXVelocity();
+                    if (Math.abs(velocityX) > minimumFlingVelocity) {
+                        scroller.fling(getScrollX(), 0, -velocityX, 0, 0, getMaxScrollX(), 0, 0);
+                        invalidate();
+                    }
+                } else if (pressedIndex != -1 && getStepIndexAt(event.getX(), event.getY()) == pressedIndex) {
+                    performClick();
+                    onStepClick(pressedIndex);
+                }
+                endTouch();
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                endTouch();
+                return true;
+        }
+        return true;
+    }
+
+    private void endTouch() {
+        isDragging = false;
+        pressedIndex = -1;
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    @Override
+    public void computeScroll() {
+        if (scroller.computeScrollOffset()) {
+            scrollTo(clampScrollX(scroller.getCurrX()), 0);
+            invalidate();
+        }
+    }
+
+    @Override
+    protected int computeHorizontalScrollRange() {
+        return getPaddingLeft() + stepGeometry.getContentWidth() + getPaddingRight();
+    }
+
+    @Override
+    protected int computeHorizontalScrollExtent() {
+        return getWidth();
+    }
+
+    @Override
+    protected int computeHorizontalScrollOffset() {
+        return getScrollX();
+    }
+
+    private int getMaxScrollX() {
+        return Math.max(0, computeHorizontalScrollRange() - getWidth());
+    }
+
+    private int clampScrollX(int scrollX) {
+        return Math.max(0, Math.min(scrollX, getMaxScrollX()));
+    }
+
+    private int getStepScrollX(int index) {
+        return clampScrollX(stepGeometry.getCenterScrollX(index, getWidth()));
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    private int getStepIndexAt(float x, float y) {
+        if (y < 0 || y > getHeight()) {
+            return -1;
+        }
+        return stepGeometry.getStepIndexAt(x + getScrollX());
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return accessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    private void onStepClick(int stepIndex) {
+        setCurrentIndex(stepIndex);
+        if (stepClickListener != null) {
+            stepClickListener.onStepClick(stepIndex);
+        }
+    }
+
+    /**
+     * Expose every step that is drawn on the canvas as a virtual view, so accessibility services
+     * can focus, read and click each step like the step views in {@link FlexyStepIndicator}.
+     */
+    private class StepAccessibilityHelper extends ExploreByTouchHelper {
+        private final Rect bounds = new Rect();
+        private final int[] geometryBounds = new int[4];
+
+        StepAccessibilityHelper(View host) {
+            super(host);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            int stepIndex = getStepIndexAt(x, y);
+            return stepIndex != -1 ? stepIndex : INVALID_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            int firstIndex = stepGeometry.getFirstVisibleIndex(getScrollX(), getWidth());
+            if (firstIndex == -1) {
+                return;
+            }
+            int lastIndex = stepGeometry.getLastVisibleIndex(getScrollX(), getWidth());
+            for (int index = firstIndex; index <= lastIndex; index++) {
+                virtualViewIds.add(index);
+            }
+        }
+
+        @Override
+        protected void onPopulateEventForVirtualView(int virtualViewId, AccessibilityEvent event) {
+            event.setContentDescription(getStepContentDescription(virtualViewId));
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId, AccessibilityNodeInfoCompat node) {
+            node.setContentDescription(getStepContentDescription(virtualViewId));
+            node.setSelected(virtualViewId <= currentIndex);
+            if (isStepClickable()) {
+                node.setClickable(true);
+                node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+            }
+            stepGeometry.getStepBounds(virtualViewId, geometryBounds);
+            bounds.set(geometryBounds[StepGeometry.LEFT] - getScrollX(), geometryBounds[StepGeometry.TOP],
+                    geometryBounds[StepGeometry.RIGHT] - getScrollX(), geometryBounds[StepGeometry.BOTTOM]);
+            node.setBoundsInParent(bounds);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action, Bundle arguments) {
+            if (action == AccessibilityNodeInfoCompat.ACTION_CLICK && isStepClickable() && virtualViewId < stepCount) {
+                onStepClick(virtualViewId);
+                sendEventForVirtualView(virtualViewId, AccessibilityEvent.TYPE_VIEW_CLICKED);
+                return true;
+            }
+            return false;
+        }
+
+        private String getStepContentDescription(int index) {
+            String description = index < stepCount ? getDescriptionText(index) : null;
+            return description != null && !description.isEmpty() ? description : String.valueOf(index + 1);
+        }
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        Parcelable superState = super.onSaveInstanceState();
+        FlexySavedState ss = new FlexySavedState(superState);
+        ss.style = getStyle();
+        ss.currentIndex = this.currentIndex;
+        ss.isStepClickable = this.isStepClickable;
+        ss.stepStore.set(stepStore);
+        return ss;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof FlexySavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        FlexySavedState ss = (FlexySavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        if (!ss.isValid) {
+            return;
+        }
+        stepPrepareGeneration++;
+        if (ss.hasSameStructure(getStyle(), stepStore)) {
+            // Step layout was already created with the same style and description
+            // (e.g. after configuration change), so only the state has to be restored.
+            this.isStepClickable = ss.isStepClickable;
+            this.currentIndex = ss.currentIndex;
+            cancelStepTransition();
+            invalidate();
+            return;
+        }
+        setStyle(ss.style);
+        this.currentIndex = ss.currentIndex;
+        this.isStepClickable = ss.isStepClickable;
+        if (stepModel == null) {
+            stepStore.set(ss.stepStore);
+        }
+        updateRenderResource();
+        updateStepLayout();
+    }
+
+    public interface StepPrepareCallback {
+        void onStepsPrepared();
+    }
+}
@@ -0,0 +1,317 @@
+package com.akexorcist.library.flexystepindicator;
+
+/**
+ * Immutable style of the step indicator.
+ * <p/>
+ * Use {@link Builder} to create the style and apply it to the indicator with
+ * {@link FlexyStepIndicator#applyStyle(FlexyStyle)} or {@link FlexyStepIndicatorView#applyStyle(FlexyStyle)}
+ * to update all of the style with a single re-render.
+ * <pre>
+ * {@code
+ * FlexyStyle style = new FlexyStyle.Builder(indicator.getStyle())
+ *         .setLineHeight(lineHeight)
+ *         .setLineActiveColor(activeColor)
+ *         .build();
+ * indicator.applyStyle(style);
+ * }
+ * </pre>
+ */
+
+@SuppressWarnings({"unused", "DefaultFileTemplate"})
+public final class FlexyStyle {
+    static final int DEFAULT_COLOR = 0xFFDDDDDD;
+    static final int DEFAULT_ERROR_COLOR = 0xFFF44336;
+
+    private final int descriptionTextColor;
+    private final int descriptionTextSize;
+    private final int numberBackgroundResId;
+    private final int numberTextSize;
+    private final int numberTextColor;
+    private final int numberSize;
+    private final int doneIconResId;
+    private final int doneBackgroundResId;
+    private final int lineActiveColor;
+    private final int lineInactiveColor;
+    private final int lineHeight;
+    private final int lineLength;
+    private final int lineDashCount;
+    private final int errorColor;
+
+    private FlexyStyle(Builder builder) {
+        this.descriptionTextColor = builder.descriptionTextColor;
+        this.descriptionTextSize = builder.descriptionTextSize;
+        this.numberBackgroundResId = builder.numberBackgroundResId;
+        this.numberTextSize = builder.numberTextSize;
+        this.numberTextColor = builder.numberTextColor;
+        this.numberSize = builder.numberSize;
+        this.doneIconResId = builder.doneIconResId;
+        this.doneBackgroundResId = builder.doneBackgroundResId;
+        this.lineActiveColor = builder.lineActiveColor;
+        this.lineInactiveColor = builder.lineInactiveColor;
+        this.lineHeight = builder.lineHeight;
+        this.lineLength = builder.lineLength;
+        this.lineDashCount = builder.lineDashCount;
+        this.errorColor = builder.errorColor;
+    }
+
+    public int getStepDescriptionTextColorRes() {
+        return descriptionTextColor;
+    }
+
+    public int getStepDescriptionTextSize() {
+        return descriptionTextSize;
+    }
+
+    public int getNumberBackgroundDrawableRes() {
+        return numberBackgroundResId;
+    }
+
+    public int getNumberTextSize() {
+        return numberTextSize;
+    }
+
+    public int getNumberTextColorRes() {
+        return numberTextColor;
+    }
+
+    public int getNumberSize() {
+        return numberSize;
+    }
+
+    public int getDoneIconDrawableRes() {
+        return doneIconResId;
+    }
+
+    public int getDoneBackgroundDrawableRes() {
+        return doneBackgroundResId;
+    }
+
+    public int getLineActiveColor() {
+        return lineActiveColor;
+    }
+
+    public int getLineInactiveColor() {
+        return lineInactiveColor;
+    }
+
+    public int getLineHeight() {
+        return lineHeight;
+    }
+
+    public int getLineLength() {
+        return lineLength;
+    }
+
+    public int getLineDashCount() {
+        return lineDashCount;
+    }
+
+    public int getErrorColor() {
+        return errorColor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FlexyStyle)) {
+            return false;
+        }
+        FlexyStyle style = (FlexyStyle) o;
+        return descriptionTextColor == style.descriptionTextColor
+                && descriptionTextSize == style.descriptionTextSize
+                && numberBackgroundResId == style.numberBackgroundResId
+                && numberTextSize == style.numberTextSize
+                && numberTextColor == style.numberTextColor
+                && numberSize == style.numberSize
+                && doneIconResId == style.doneIconResId
+                && doneBackgroundResId == style.doneBackgroundResId
+                && lineActiveColor == style.lineActiveColor
+                && lineInactiveColor == style.lineInactiveColor
+                && lineHeight == style.lineHeight
+                && lineLength == style.lineLength
+                && lineDashCount == style.lineDashCount
+                && errorColor == style.errorColor;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = descriptionTextColor;
+        result = 31 * result + descriptionTextSize;
+        result = 31 * result + numberBackgroundResId;
+        result = 31 * result + numberTextSize;
+        result = 31 * result + numberTextColor;
+        result = 31 * result + numberSize;
+        result = 31 * result + doneIconResId;
+        result = 31 * result + doneBackgroundResId;
+        result = 31 * result + lineActiveColor;
+        result = 31 * result + lineInactiveColor;
+        result = 31 * result + lineHeight;
+        result = 31 * result + lineLength;
+        result = 31 * result + lineDashCount;
+        result = 31 * result + errorColor;
+        return result;
+    }
+
+    public static final class Builder {
+        private int descriptionTextColor = -1;
+        private int descriptionTextSize = 16;
+        private int numberBackgroundResId = -1;
+        private int numberTextSize = 16;
+        private int numberTextColor = -1;
+        private int numberSize = 30;
+        private int doneIconResId = -1;
+        private int doneBackgroundResId = -1;
+        private int lineActiveColor = DEFAULT_COLOR;
+        private int lineInactiveColor = DEFAULT_COLOR;
+        private int lineHeight = 4;
+        private int lineLength = 30;
+        private int lineDashCount = 5;
+        private int errorColor = DEFAULT_ERROR_COLOR;
+
+        /**
+         * Create the builder with default style
+         */
+        public Builder() {
+        }
+
+        /**
+         * Create the builder with all value from the style
+         *
+         * @param style a style to copy from
+         */
+        public Builder(FlexyStyle style) {
+            this.descriptionTextColor = style.descriptionTextColor;
+            this.descriptionTextSize = style.descriptionTextSize;
+            this.numberBackgroundResId = style.numberBackgroundResId;
+            this.numberTextSize = style.numberTextSize;
+            this.numberTextColor = style.numberTextColor;
+            this.numberSize = style.numberSize;
+            this.doneIconResId = style.doneIconResId;
+            this.doneBackgroundResId = style.doneBackgroundResId;
+            this.lineActiveColor = style.lineActiveColor;
+            this.lineInactiveColor = style.lineInactiveColor;
+            this.lineHeight = style.lineHeight;
+            this.lineLength = style.lineLength;
+            this.lineDashCount = style.lineDashCount;
+            this.errorColor = style.errorColor;
+        }
+
+        /**
+         * @param resId a color resource of step description text
+         */
+        public Builder setStepDescriptionTextColorRes(int resId) {
+            this.descriptionTextColor = resId;
+            return this;
+        }
+
+        /**
+         * @param size a size of step description text (px)
+         */
+        public Builder setStepDescriptionTextSize(int size) {
+            this.descriptionTextSize = size;
+            return this;
+        }
+
+        /**
+         * @param resId a resource id of step number background drawable
+         */
+        public Builder setNumberBackgroundDrawableRes(int resId) {
+            this.numberBackgroundResId = resId;
+            return this;
+        }
+
+        /**
+         * @param size a size of step number text (px)
+         */
+        public Builder setNumberTextSize(int size) {
+            this.numberTextSize = size;
+            return this;
+        }
+
+        /**
+         * @param resId a color resource of step number text
+         */
+        public Builder setNumberTextColorRes(int resId) {
+            this.numberTextColor = resId;
+            return this;
+        }
+
+        /**
+         * @param size a size of step number container (px)
+         */
+        public Builder setNumberSize(int size) {
+            this.numberSize = size;
+            return this;
+        }
+
+        /**
+         * @param resId a resource id of done icon drawable
+         */
+        public Builder setDoneIconDrawableRes(int resId) {
+            this.doneIconResId = resId;
+            return this;
+        }
+
+        /**
+         * @param resId a resource id of done icon background drawable
+         */
+        public Builder setDoneBackgroundDrawableRes(int resId) {
+            this.doneBackgroundResId = resId;
+            return this;
+        }
+
+        /**
+         * @param color a color of step line when active
+         */
+        public Builder setLineActiveColor(int color) {
+            this.lineActiveColor = color;
+            return this;
+        }
+
+        /**
+         * @param color a color of step line when inactive
+         */
+        public Builder setLineInactiveColor(int color) {
+            this.lineInactiveColor = color;
+            return this;
+        }
+
+        /**
+         * @param height a height of the step line (px)
+         */
+        public Builder setLineHeight(int height) {
+            this.lineHeight = height;
+            return this;
+        }
+
+        /**
+         * @param length a length of the step line (px)
+         */
+        public Builder setLineLength(int length) {
+            this.lineLength = length;
+            return this;
+        }
+
+        /**
+         * @param lineDashCount a number of dash in the step line
+         */
+        public Builder setLineDashCount(int lineDashCount) {
+            this.lineDashCount = lineDashCount;
+            return this;
+        }
+
+        /**
+         * @param color a color of number and description text of the step that has error state
+         */
+        public Builder setErrorColor(int color) {
+            this.errorColor = color;
+            return this;
+        }
+
+        public FlexyStyle build() {
+            return new FlexyStyle(this);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+/**
+ * Drawable of the step line that draw the dashes directly on the target canvas.
+ * <p/>
+ * Step line is drawn in the content area that has width of {@code (dashCount - 0.5) * lineLength}
+ * then scaled to fit the drawable bounds, so it look like the step line that was drawn on bitmap.
+ * No backing bitmap is allocated and the mirrored or vertical line is just a canvas transform.
+ */
+
+final class LineDrawable extends Drawable {
+    private final LinePainter linePainter;
+    private final Paint paint = new Paint();
+    private int dashCount;
+    private int lineLength;
+    private int lineHeight;
+    private int activeColor;
+    private int inactiveColor;
+    private boolean isMirror;
+    private boolean isVertical;
+    private float fillProgress = 1;
+    private int alpha = 255;
+
+    LineDrawable(LinePainter linePainter) {
+        this.linePainter = linePainter;
+    }
+
+    void setLineStyle(int dashCount, int lineLength, int lineHeight, int activeColor, int inactiveColor) {
+        if (this.dashCount == dashCount && this.lineLength == lineLength && this.lineHeight == lineHeight
+                && this.activeColor == activeColor && this.inactiveColor == inactiveColor) {
+            return;
+        }
+        this.dashCount = dashCount;
+        this.lineLength = lineLength;
+        this.lineHeight = lineHeight;
+        this.activeColor = activeColor;
+        this.inactiveColor = inactiveColor;
+        invalidateSelf();
+    }
+
+    void setMirror(boolean isMirror) {
+        if (this.isMirror != isMirror) {
+            this.isMirror = isMirror;
+            invalidateSelf();
+        }
+    }
+
+    boolean isMirror() {
+        return isMirror;
+    }
+
+    /**
+     * Set the step line to be drawn from top to bottom. The line length will be
+     * scaled to the height of the drawable bounds and line height to its width.
+     */
+    void setVertical(boolean isVertical) {
+        if (this.isVertical != isVertical) {
+            this.isVertical = isVertical;
+            invalidateSelf();
+        }
+    }
+
+    boolean isVertical() {
+        return isVertical;
+    }
+
+    void setInactive(boolean isInactive) {
+        setFillProgress(isInactive ? 0 : 1);
+    }
+
+    /**
+     * Set how much of the step line was filled as active line from the left side.
+     *
+     * @param fillProgress 0 for inactive line, 1 for active line
+     *                     or any value between them to show both of them
+     */
+    void setFillProgress(float fillProgress) {
+        float progress = Math.max(0, Math.min(1, fillProgress));
+        if (this.fillProgress != progress) {
+            this.fillProgress = progress;
+            invalidateSelf();
+        }
+    }
+
+    float getFillProgress() {
+        return fillProgress;
+    }
+
+    static float getContentWidth(int dashCount, int lineLength) {
+        return StepGeometry.getLineContentWidth(dashCount, lineLength);
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        Rect bounds = getBounds();
+        if (bounds.isEmpty() || getContentWidth(dashCount, lineLength) <= 0 || lineHeight <= 0) {
+            return;
+        }
+        int start = isVertical ? bounds.top : bounds.left;
+        int end = isVertical ? bounds.bottom : bounds.right;
+        if (fillProgress >= 1) {
+            drawLine(canvas, bounds, false, start, end);
+        } else if (fillProgress <= 0) {
+            drawLine(canvas, bounds, true, start, end);
+        } else {
+            int fillEnd = start + Math.round((end - start) * fillProgress);
+            drawLine(canvas, bounds, false, start, fillEnd);
+            drawLine(canvas, bounds, true, fillEnd, end);
+        }
+    }
+
+    private void drawLine(Canvas canvas, Rect bounds, boolean isInactive, int clipStart, int clipEnd) {
+        int color = isInactive ? inactiveColor : activeColor;
+        paint.setColor(color);
+        paint.setAlpha(Color.alpha(color) * alpha / 255);
+        int saveCount = canvas.save();
+        int length;
+        int thickness;
+        if (isVertical) {
+            canvas.clipRect(bounds.left, clipStart, bounds.right, clipEnd);
+            length = bounds.height();
+            thickness = bounds.width();
+            // Rotate the canvas, so the line is drawn along the x axis as usual
+            canvas.translate(bounds.right, bounds.top);
+            canvas.rotate(90);
+        } else {
+            canvas.clipRect(clipStart, bounds.top, clipEnd, bounds.bottom);
+            length = bounds.width();
+            thickness = bounds.height();
+            canvas.translate(bounds.left, bounds.top);
+        }
+        if (isMirror) {
+            canvas.scale(-1, 1, length / 2f, 0);
+        }
+        canvas.scale(length / getContentWidth(dashCount, lineLength), (float) thickness / lineHeight);
+        if (isInactive) {
+            linePainter.drawActiveLine(canvas, dashCount, lineHeight, lineLength, paint);
+        } else {
+            linePainter.drawInactiveLine(canvas, dashCount, lineHeight, lineLength, paint);
+        }
+        canvas.restoreToCount(saveCount);
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return isVertical ? lineHeight : lineLength;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return isVertical ? lineLength : lineHeight;
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (this.alpha != alpha) {
+            this.alpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        paint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    /**
+     * Hook of the indicator that draw the step line, so the indicator's subclass
+     * still can custom the step line with its own code.
+     */
+    interface LinePainter {
+        void drawActiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint);
+
+        void drawInactiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint);
+    }
+}
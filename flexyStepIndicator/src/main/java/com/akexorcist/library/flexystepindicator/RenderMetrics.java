@@ -0,0 +1,150 @@
+package com.akexorcist.library.flexystepindicator;
+
+/**
+ * Timing and counters of a render operation in the step indicator.
+ * <p/>
+ * The indicator reuses the same instance for every operation, so read the value
+ * inside {@link RenderMetricsListener#onRenderMetrics(RenderMetrics)} and don't keep the instance.
+ */
+
+@SuppressWarnings({"unused", "DefaultFileTemplate"})
+public final class RenderMetrics {
+    /**
+     * Step views or step layouts were created or rebound from the step list
+     */
+    public static final int OPERATION_UPDATE_INDICATOR_VIEW = 1;
+    /**
+     * State of every step was updated
+     */
+    public static final int OPERATION_UPDATE_VIEW = 2;
+    /**
+     * State of the steps that changed by current step index was updated
+     */
+    public static final int OPERATION_UPDATE_CHANGED_STEP = 3;
+    /**
+     * Steps were drawn on the canvas
+     */
+    public static final int OPERATION_DRAW = 4;
+    /**
+     * Steps that were changed, inserted or removed in the step model were updated
+     */
+    public static final int OPERATION_UPDATE_STEP_MODEL = 5;
+
+    private int operation;
+    private long durationNanos;
+    private int stepCount;
+    private int updatedStepCount;
+    private int inflateCount;
+    private int lineDrawableCount;
+    private int textLayoutCount;
+    private int iconDecodeCount;
+    private long iconDecodeBytes;
+
+    RenderMetrics() {
+    }
+
+    /**
+     * Reset all of the counters for the new operation
+     *
+     * @return start time of the operation
+     */
+    long begin() {
+        updatedStepCount = 0;
+        inflateCount = 0;
+        lineDrawableCount = 0;
+        textLayoutCount = 0;
+        iconDecodeCount = 0;
+        iconDecodeBytes = 0;
+        return System.nanoTime();
+    }
+
+    void end(int operation, long startTime, int stepCount) {
+        this.durationNanos = System.nanoTime() - startTime;
+        this.operation = operation;
+        this.stepCount = stepCount;
+    }
+
+    void onStepUpdated() {
+        updatedStepCount++;
+    }
+
+    void onViewInflated() {
+        inflateCount++;
+    }
+
+    void onLineDrawableCreated() {
+        lineDrawableCount++;
+    }
+
+    void onTextLayoutCreated() {
+        textLayoutCount++;
+    }
+
+    void onIconDecoded(int byteCount) {
+        iconDecodeCount++;
+        iconDecodeBytes += byteCount;
+    }
+
+    /**
+     * @return the operation type, one of {@code OPERATION_*} constants
+     */
+    public int getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the duration of the operation (ns)
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return total step in the indicator
+     */
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * @return number of step that was updated or drawn in the operation
+     */
+    public int getUpdatedStepCount() {
+        return updatedStepCount;
+    }
+
+    /**
+     * @return number of step view that was inflated in the operation
+     */
+    public int getInflateCount() {
+        return inflateCount;
+    }
+
+    /**
+     * @return number of step line drawable that was created in the operation
+     */
+    public int getLineDrawableCount() {
+        return lineDrawableCount;
+    }
+
+    /**
+     * @return number of text layout that was created in the operation
+     */
+    public int getTextLayoutCount() {
+        return textLayoutCount;
+    }
+
+    /**
+     * @return number of step icon that was decoded into the shared icon bitmap in the operation
+     */
+    public int getIconDecodeCount() {
+        return iconDecodeCount;
+    }
+
+    /**
+     * @return size of the icon bitmap that was decoded in the operation (bytes)
+     */
+    public long getIconDecodeBytes() {
+        return iconDecodeBytes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.akexorcist.library.flexystepindicator;
+
+/**
+ * Listener that receive the render metrics from the step indicator.
+ * <p/>
+ * This listener is called on the main thread after each render operation,
+ * so it should be fast as possible.
+ */
+
+public interface RenderMetricsListener {
+    void onRenderMetrics(RenderMetrics metrics);
+}
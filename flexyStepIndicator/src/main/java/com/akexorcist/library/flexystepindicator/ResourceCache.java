@@ -0,0 +1,81 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.util.SparseArray;
+
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide cache of the color state list and drawable that was resolved by the indicators.
+ * <p/>
+ * The resources are cached per resource id and theme, so the indicators that use the same style
+ * resolve each resource only once. Color state list is immutable so the same instance is shared,
+ * while the drawable is shared through its {@link Drawable.ConstantState}, so every caller still
+ * gets its own drawable instance. The cache of the theme is released when the theme
+ * (and its activity) is gone. It should be used on the main thread only.
+ */
+
+final class ResourceCache {
+    private static final WeakHashMap<Resources.Theme, SparseArray<ColorStateList>> colorStateListCache = new WeakHashMap<>();
+    private static final WeakHashMap<Resources.Theme, SparseArray<Drawable.ConstantState>> drawableStateCache = new WeakHashMap<>();
+
+    private ResourceCache() {
+    }
+
+    @SuppressWarnings("deprecation")
+    static ColorStateList getColorStateList(Context context, int resId) {
+        Resources.Theme theme = context.getTheme();
+        SparseArray<ColorStateList> colorStateListArray = colorStateListCache.get(theme);
+        if (colorStateListArray == null) {
+            colorStateListArray = new SparseArray<>();
+            colorStateListCache.put(theme, colorStateListArray);
+        }
+        ColorStateList colorStateList = colorStateListArray.get(resId);
+        if (colorStateList == null) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                colorStateList = context.getResources().getColorStateList(resId, theme);
+            } else {
+                colorStateList = context.getResources().getColorStateList(resId);
+            }
+            colorStateListArray.put(resId, colorStateList);
+        }
+        return colorStateList;
+    }
+
+    @SuppressWarnings("deprecation")
+    static Drawable getDrawable(Context context, int resId) {
+        Resources resources = context.getResources();
+        Resources.Theme theme = context.getTheme();
+        SparseArray<Drawable.ConstantState> drawableStateArray = drawableStateCache.get(theme);
+        if (drawableStateArray == null) {
+            drawableStateArray = new SparseArray<>();
+            drawableStateCache.put(theme, drawableStateArray);
+        }
+        Drawable.ConstantState drawableState = drawableStateArray.get(resId);
+        if (drawableState != null) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                return drawableState.newDrawable(resources, theme);
+            }
+            return drawableState.newDrawable(resources);
+        }
+        Drawable drawable;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            drawable = resources.getDrawable(resId, theme);
+        } else {
+            drawable = resources.getDrawable(resId);
+        }
+        if (drawable != null && drawable.getConstantState() != null) {
+            drawableStateArray.put(resId, drawable.getConstantState());
+        }
+        return drawable;
+    }
+
+    static void clear() {
+        colorStateListCache.clear();
+        drawableStateCache.clear();
+    }
+}
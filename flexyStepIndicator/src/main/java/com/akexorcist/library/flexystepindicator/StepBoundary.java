@@ -0,0 +1,131 @@
+package com.akexorcist.library.flexystepindicator;
+
+/**
+ * Bounds of the step views in {@link FlexyStepIndicator} that recorded after the layout.
+ * <p/>
+ * Steps are placed in order along the orientation (or row by row when the steps were wrapped),
+ * so the step at the touch position is found by binary search instead of asking every step view.
+ */
+
+final class StepBoundary {
+    private static final int MIN_CAPACITY = 8;
+    private static final int BOUNDS_SIZE = 4;
+
+    private int[] boundsArray = new int[0];
+    private int stepCount;
+    private boolean isVertical;
+    private boolean isWrapped;
+    private boolean isReversed;
+
+    /**
+     * Start recording the bounds of the steps, then set the bounds of every step
+     * with {@link #setStepBounds(int, int, int, int, int)}
+     *
+     * @param stepCount  total step in the indicator
+     * @param isVertical steps are placed from top to bottom
+     * @param isWrapped  steps are placed from left to right then wrapped to the next row
+     */
+    void reset(int stepCount, boolean isVertical, boolean isWrapped) {
+        int capacity = stepCount * BOUNDS_SIZE;
+        if (boundsArray.length < capacity) {
+            boundsArray = new int[Math.max(capacity, Math.max(MIN_CAPACITY, boundsArray.length + (boundsArray.length >> 1)))];
+        }
+        this.stepCount = stepCount;
+        this.isVertical = isVertical;
+        this.isWrapped = isWrapped && !isVertical;
+        this.isReversed = false;
+    }
+
+    void setStepBounds(int index, int left, int top, int right, int bottom) {
+        int offset = index * BOUNDS_SIZE;
+        boundsArray[offset + StepGeometry.LEFT] = left;
+        boundsArray[offset + StepGeometry.TOP] = top;
+        boundsArray[offset + StepGeometry.RIGHT] = right;
+        boundsArray[offset + StepGeometry.BOTTOM] = bottom;
+        if (index == stepCount - 1 && index > 0) {
+            // Horizontal steps are placed from right to left in RTL layout direction
+            isReversed = !isVertical && !isWrapped && left < boundsArray[StepGeometry.LEFT];
+        }
+    }
+
+    int getStepCount() {
+        return stepCount;
+    }
+
+    void getStepBounds(int index, int[] bounds) {
+        System.arraycopy(boundsArray, index * BOUNDS_SIZE, bounds, 0, BOUNDS_SIZE);
+    }
+
+    /**
+     * @return an index of the step at the position or -1 if there's no step
+     */
+    int getStepIndexAt(int x, int y) {
+        if (stepCount == 0) {
+            return -1;
+        }
+        int index;
+        if (isVertical) {
+            index = findFirstGreater(StepGeometry.BOTTOM, y, 0, stepCount);
+        } else if (isReversed) {
+            index = findFirstNotGreater(StepGeometry.LEFT, x, 0, stepCount);
+        } else if (isWrapped) {
+            // Find the row from the top of the steps, then find the step in that row
+            int nextRowIndex = findFirstGreater(StepGeometry.TOP, y, 0, stepCount);
+            if (nextRowIndex == 0) {
+                return -1;
+            }
+            int rowTop = get(nextRowIndex - 1, StepGeometry.TOP);
+            int rowIndex = findFirstGreater(StepGeometry.TOP, rowTop - 1, 0, nextRowIndex);
+            index = findFirstGreater(StepGeometry.RIGHT, x, rowIndex, nextRowIndex);
+            if (index == nextRowIndex) {
+                return -1;
+            }
+        } else {
+            index = findFirstGreater(StepGeometry.RIGHT, x, 0, stepCount);
+        }
+        return index < stepCount && contains(index, x, y) ? index : -1;
+    }
+
+    private boolean contains(int index, int x, int y) {
+        return x >= get(index, StepGeometry.LEFT) && x < get(index, StepGeometry.RIGHT)
+                && y >= get(index, StepGeometry.TOP) && y < get(index, StepGeometry.BOTTOM);
+    }
+
+    /**
+     * @return the first index in the range that its bound is greater than the value (bounds are ascending)
+     */
+    private int findFirstGreater(int bound, int value, int fromIndex, int toIndex) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle, bound) > value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first index in the range that its bound isn't greater than the value (bounds are descending)
+     */
+    private int findFirstNotGreater(int bound, int value, int fromIndex, int toIndex) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle, bound) <= value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private int get(int index, int bound) {
+        return boundsArray[(index * BOUNDS_SIZE) + bound];
+    }
+}
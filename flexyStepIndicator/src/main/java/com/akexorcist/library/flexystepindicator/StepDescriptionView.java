@@ -0,0 +1,174 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+/**
+ * Description text of the step view in {@link FlexyStepIndicator}.
+ * <p/>
+ * It's measured and drawn with the text layout from {@link TextLayoutCache} instead of
+ * the text layout of its own like TextView, so the description that was measured for the step size
+ * is shared with the step view and every indicator that shows the same step.
+ */
+
+public final class StepDescriptionView extends View {
+    private static final float DEFAULT_TEXT_SIZE_SP = 14;
+
+    private final TextPaint paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private String text = "";
+    private ColorStateList textColor;
+    private Layout.Alignment alignment = Layout.Alignment.ALIGN_CENTER;
+    private StaticLayout layout;
+    private int desiredWidth = -1;
+
+    public StepDescriptionView(Context context) {
+        this(context, null);
+    }
+
+    public StepDescriptionView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        paint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, DEFAULT_TEXT_SIZE_SP, getResources().getDisplayMetrics()));
+        TypedArray typedArray = context.obtainStyledAttributes(new int[]{android.R.attr.textColorSecondary});
+        textColor = typedArray.getColorStateList(0);
+        typedArray.recycle();
+        if (textColor == null) {
+            textColor = ColorStateList.valueOf(Color.GRAY);
+        }
+    }
+
+    public void setText(String text) {
+        if (text == null) {
+            text = "";
+        }
+        if (this.text.equals(text)) {
+            return;
+        }
+        this.text = text;
+        setContentDescription(text);
+        invalidateTextLayout();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @param textSize text size (px)
+     */
+    public void setTextSize(float textSize) {
+        if (paint.getTextSize() == textSize) {
+            return;
+        }
+        paint.setTextSize(textSize);
+        invalidateTextLayout();
+    }
+
+    public float getTextSize() {
+        return paint.getTextSize();
+    }
+
+    public void setTextColor(int color) {
+        setTextColor(ColorStateList.valueOf(color));
+    }
+
+    public void setTextColor(ColorStateList textColor) {
+        if (textColor == null || textColor.equals(this.textColor)) {
+            return;
+        }
+        this.textColor = textColor;
+        invalidate();
+    }
+
+    public ColorStateList getTextColors() {
+        return textColor;
+    }
+
+    /**
+     * @param alignment alignment of the text lines in the view
+     */
+    public void setAlignment(Layout.Alignment alignment) {
+        if (this.alignment == alignment) {
+            return;
+        }
+        this.alignment = alignment;
+        layout = null;
+        invalidate();
+    }
+
+    /**
+     * @return the paint that measure the description, it shouldn't be changed
+     */
+    TextPaint getPaint() {
+        return paint;
+    }
+
+    private void invalidateTextLayout() {
+        layout = null;
+        desiredWidth = -1;
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int horizontalPadding = getPaddingLeft() + getPaddingRight();
+        int verticalPadding = getPaddingTop() + getPaddingBottom();
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        if (widthMode != MeasureSpec.EXACTLY) {
+            if (desiredWidth == -1) {
+                desiredWidth = (int) Math.ceil(Layout.getDesiredWidth(text, paint));
+            }
+            width = widthMode == MeasureSpec.AT_MOST ? Math.min(width, desiredWidth + horizontalPadding) : desiredWidth + horizontalPadding;
+        }
+        StaticLayout textLayout = getTextLayout(Math.max(0, width - horizontalPadding));
+        int height = MeasureSpec.getSize(heightMeasureSpec);
+        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+        if (heightMode != MeasureSpec.EXACTLY) {
+            int textHeight = textLayout.getHeight() + verticalPadding;
+            height = heightMode == MeasureSpec.AT_MOST ? Math.min(height, textHeight) : textHeight;
+        }
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        StaticLayout textLayout = getTextLayout(Math.max(0, getWidth() - getPaddingLeft() - getPaddingRight()));
+        int contentHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+        paint.setColor(textColor.getColorForState(getDrawableState(), textColor.getDefaultColor()));
+        canvas.save();
+        // Text is placed at the center of the content height like the description TextView with center gravity
+        canvas.translate(getPaddingLeft(), getPaddingTop() + Math.max(0, (contentHeight - textLayout.getHeight()) / 2));
+        TextLayoutCache.draw(canvas, textLayout, paint);
+        canvas.restore();
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        if (textColor != null && textColor.isStateful()) {
+            invalidate();
+        }
+    }
+
+    private StaticLayout getTextLayout(int width) {
+        if (layout != null && layout.getWidth() == width) {
+            return layout;
+        }
+        layout = TextLayoutCache.get(text, paint, width, alignment);
+        if (layout == null) {
+            layout = TextLayoutCache.create(text, paint, width, alignment);
+        }
+        return layout;
+    }
+}
@@ -0,0 +1,223 @@
+package com.akexorcist.library.flexystepindicator;
+
+/**
+ * Position and size of every part of the steps in {@link FlexyStepIndicatorView}
+ * and the fixed size steps in {@link FlexyStepIndicator}.
+ * <p/>
+ * Geometry is computed from the style, step count and description height only,
+ * so it doesn't depend on any Android class and can be tested or benchmarked on the plain JVM.
+ * Both indicators take the margins from the same dimension resources, so their steps have the same size.
+ * Bounds are written to the array of {@code [left, top, right, bottom]} that owned by the caller,
+ * so computing the bounds while drawing doesn't create any object.
+ */
+
+final class StepGeometry {
+    static final int LEFT = 0;
+    static final int TOP = 1;
+    static final int RIGHT = 2;
+    static final int BOTTOM = 3;
+
+    private int numberSize;
+    private int lineLength;
+    private int lineHeight;
+    private int numberMargin;
+    private int descriptionMargin;
+    private int stepCount;
+    private int descriptionHeight;
+    private int originLeft;
+    private int originTop;
+
+    private int stepWidth;
+    private int topRowHeight;
+    private int descriptionWidth;
+
+    /**
+     * Set the style of the steps
+     *
+     * @param style             a style that has the number size, line length and line height (px)
+     * @param numberMargin      a margin between number container and step line in each side (px)
+     * @param descriptionMargin a margin around the description (px)
+     */
+    void setStyle(FlexyStyle style, int numberMargin, int descriptionMargin) {
+        this.numberSize = style.getNumberSize();
+        this.lineLength = style.getLineLength();
+        this.lineHeight = style.getLineHeight();
+        this.numberMargin = numberMargin;
+        this.descriptionMargin = descriptionMargin;
+        stepWidth = (lineLength * 2) + (numberMargin * 2) + numberSize;
+        topRowHeight = Math.max(numberSize, lineHeight);
+        descriptionWidth = Math.max(0, stepWidth - (descriptionMargin * 2));
+    }
+
+    void setStepCount(int stepCount) {
+        this.stepCount = Math.max(0, stepCount);
+    }
+
+    int getStepCount() {
+        return stepCount;
+    }
+
+    void setDescriptionHeight(int descriptionHeight) {
+        this.descriptionHeight = Math.max(0, descriptionHeight);
+    }
+
+    int getDescriptionHeight() {
+        return descriptionHeight;
+    }
+
+    /**
+     * Set the position of the first step, usually the padding of the view
+     */
+    void setOrigin(int left, int top) {
+        this.originLeft = left;
+        this.originTop = top;
+    }
+
+    int getStepWidth() {
+        return stepWidth;
+    }
+
+    int getTopRowHeight() {
+        return topRowHeight;
+    }
+
+    int getDescriptionWidth() {
+        return descriptionWidth;
+    }
+
+    /**
+     * @return width of all of the steps without the origin
+     */
+    int getContentWidth() {
+        return stepWidth * stepCount;
+    }
+
+    /**
+     * @return height of the steps without the origin
+     */
+    int getContentHeight() {
+        return topRowHeight + (descriptionMargin * 2) + descriptionHeight;
+    }
+
+    int getStepLeft(int index) {
+        return originLeft + (stepWidth * index);
+    }
+
+    int getStepRight(int index) {
+        return getStepLeft(index) + stepWidth;
+    }
+
+    boolean hasStartLine(int index) {
+        return index > 0;
+    }
+
+    boolean hasEndLine(int index) {
+        return index < stepCount - 1;
+    }
+
+    void getStepBounds(int index, int[] bounds) {
+        int left = getStepLeft(index);
+        setBounds(bounds, left, originTop, left + stepWidth, originTop + getContentHeight());
+    }
+
+    void getNumberBounds(int index, int[] bounds) {
+        int left = getStepLeft(index) + lineLength + numberMargin;
+        int top = originTop + ((topRowHeight - numberSize) / 2);
+        setBounds(bounds, left, top, left + numberSize, top + numberSize);
+    }
+
+    void getStartLineBounds(int index, int[] bounds) {
+        int left = getStepLeft(index);
+        int top = getLineTop();
+        setBounds(bounds, left, top, left + lineLength, top + lineHeight);
+    }
+
+    void getEndLineBounds(int index, int[] bounds) {
+        int left = getStepRight(index) - lineLength;
+        int top = getLineTop();
+        setBounds(bounds, left, top, left + lineLength, top + lineHeight);
+    }
+
+    void getDescriptionBounds(int index, int[] bounds) {
+        int left = getStepLeft(index) + descriptionMargin;
+        int top = originTop + topRowHeight + descriptionMargin;
+        setBounds(bounds, left, top, left + descriptionWidth, top + descriptionHeight);
+    }
+
+    /**
+     * @param x a position in the same coordinate as the bounds
+     * @return an index of the step at the position or -1 if there's no step
+     */
+    int getStepIndexAt(float x) {
+        float stepX = x - originLeft;
+        if (stepWidth <= 0 || stepX < 0) {
+            return -1;
+        }
+        int index = (int) (stepX / stepWidth);
+        return index < stepCount ? index : -1;
+    }
+
+    /**
+     * @param scrollX a scroll position of the view
+     * @param width   a width of the view
+     * @return an index of the first step that visible in the view or -1 if there's no step
+     */
+    int getFirstVisibleIndex(int scrollX, int width) {
+        if (stepCount == 0 || stepWidth <= 0 || width <= 0) {
+            return -1;
+        }
+        return Math.max(0, Math.min(stepCount - 1, (scrollX - originLeft) / stepWidth));
+    }
+
+    /**
+     * @param scrollX a scroll position of the view
+     * @param width   a width of the view
+     * @return an index of the last step that visible in the view or -1 if there's no step
+     */
+    int getLastVisibleIndex(int scrollX, int width) {
+        if (stepCount == 0 || stepWidth <= 0 || width <= 0) {
+            return -1;
+        }
+        return Math.max(0, Math.min(stepCount - 1, (scrollX + width - originLeft) / stepWidth));
+    }
+
+    /**
+     * @param index an index of the step
+     * @param width a width of the view
+     * @return a scroll position that the step is in the center of the view (not clamped)
+     */
+    int getCenterScrollX(int index, int width) {
+        if (stepCount == 0) {
+            return 0;
+        }
+        int stepIndex = Math.max(0, Math.min(index, stepCount - 1));
+        return getStepLeft(stepIndex) + (stepWidth / 2) - (width / 2);
+    }
+
+    private int getLineTop() {
+        return originTop + ((topRowHeight - lineHeight) / 2);
+    }
+
+    /**
+     * @param dashCount  a number of dash for the step line (include left and right side)
+     * @param lineLength a size of step line width in each side (px)
+     * @return width of the content that step line was drawn on before it was scaled to the bounds
+     */
+    static float getLineContentWidth(int dashCount, int lineLength) {
+        return (int) ((dashCount - 0.5f) * lineLength);
+    }
+
+    /**
+     * @return start position of the dash in the step line content
+     */
+    static float getDashStart(int dashIndex, int lineLength) {
+        return lineLength * 2 * dashIndex;
+    }
+
+    private static void setBounds(int[] bounds, int left, int top, int right, int bottom) {
+        bounds[LEFT] = left;
+        bounds[TOP] = top;
+        bounds[RIGHT] = right;
+        bounds[BOTTOM] = bottom;
+    }
+}
@@ -0,0 +1,106 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide atlas of the step icons that decoded at the size of the number container.
+ * <p/>
+ * Each icon is decoded into a bitmap once per resource id, size and theme when a step
+ * needs it for the first time, then every step in every indicator draws it from the same bitmap
+ * through its {@link Drawable.ConstantState}, so the icon that was shown once isn't decoded or scaled again.
+ * Bitmaps of each theme are limited to {@link #MAX_BYTES_PER_THEME}, the least recently used icon
+ * is released first and will be decoded again when it's needed.
+ * Stateful icon (e.g. selector) can't be flattened into a bitmap, so it's shared by {@link ResourceCache}
+ * instead. The icons of the theme are released when the theme (and its activity) is gone.
+ * It should be used on the main thread only.
+ */
+
+final class StepIconAtlas {
+    private static final int MAX_BYTES_PER_THEME = 2 * 1024 * 1024;
+    private static final WeakHashMap<Resources.Theme, LruCache<Long, BitmapDrawable>> iconCache = new WeakHashMap<>();
+
+    private StepIconAtlas() {
+    }
+
+    /**
+     * @param context       a context to resolve the icon
+     * @param resId         drawable resource of the icon or -1
+     * @param size          a size of the number container that icon will be drawn in (px)
+     * @param renderMetrics render metrics to count the decoded icon or null
+     * @return the icon that fit in the size or null if there's no icon
+     */
+    static Drawable getIcon(Context context, int resId, int size, RenderMetrics renderMetrics) {
+        if (resId == -1) {
+            return null;
+        }
+        Resources resources = context.getResources();
+        LruCache<Long, BitmapDrawable> themeIconCache = getThemeIconCache(context.getTheme());
+        long key = getKey(resId, size);
+        BitmapDrawable prototype = themeIconCache.get(key);
+        if (prototype != null) {
+            return prototype.getConstantState().newDrawable(resources);
+        }
+        Drawable drawable = ResourceCache.getDrawable(context, resId);
+        if (drawable == null || drawable.isStateful() || size <= 0) {
+            return drawable;
+        }
+        Bitmap bitmap = decodeIcon(drawable, size, resources.getDisplayMetrics().densityDpi);
+        if (renderMetrics != null) {
+            renderMetrics.onIconDecoded(bitmap.getByteCount());
+        }
+        // Prototype is never given out, so the icon that was mutated by the caller won't change the cached one
+        prototype = new BitmapDrawable(resources, bitmap);
+        themeIconCache.put(key, prototype);
+        return prototype.getConstantState().newDrawable(resources);
+    }
+
+    /**
+     * Draw the icon into the bitmap that fit center in the size, so it can be drawn without scaling
+     */
+    private static Bitmap decodeIcon(Drawable drawable, int size, int density) {
+        int width = size;
+        int height = size;
+        int intrinsicWidth = drawable.getIntrinsicWidth();
+        int intrinsicHeight = drawable.getIntrinsicHeight();
+        if (intrinsicWidth > 0 && intrinsicHeight > 0) {
+            float scale = Math.min((float) size / intrinsicWidth, (float) size / intrinsicHeight);
+            width = Math.max(1, Math.round(intrinsicWidth * scale));
+            height = Math.max(1, Math.round(intrinsicHeight * scale));
+        }
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        bitmap.setDensity(density);
+        drawable.setBounds(0, 0, width, height);
+        drawable.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    private static LruCache<Long, BitmapDrawable> getThemeIconCache(Resources.Theme theme) {
+        LruCache<Long, BitmapDrawable> themeIconCache = iconCache.get(theme);
+        if (themeIconCache == null) {
+            themeIconCache = new LruCache<Long, BitmapDrawable>(MAX_BYTES_PER_THEME) {
+                @Override
+                protected int sizeOf(Long key, BitmapDrawable value) {
+                    return value.getBitmap().getByteCount();
+                }
+            };
+            iconCache.put(theme, themeIconCache);
+        }
+        return themeIconCache;
+    }
+
+    private static long getKey(int resId, int size) {
+        return ((long) resId << 32) | (size & 0xFFFFFFFFL);
+    }
+
+    static void clear() {
+        iconCache.clear();
+    }
+}
@@ -0,0 +1,224 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.util.SparseIntArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data source of the steps in the indicator, it works like the adapter of list view.
+ * <p/>
+ * Set the model to the indicator with {@link FlexyStepIndicator#setStepModel(StepModel)}
+ * or {@link FlexyStepIndicatorView#setStepModel(StepModel)} then call {@code notify*} methods
+ * when the steps were changed, so the indicator will update only the steps that were changed
+ * and keep current step index at the same step.
+ * <pre>
+ * {@code
+ * public class JobStepModel extends StepModel {
+ *     private List<JobStage> stageList;
+ *
+ *     public int getStepCount() {
+ *         return stageList.size();
+ *     }
+ *
+ *     public String getStepDescription(int index) {
+ *         return stageList.get(index).getName();
+ *     }
+ *
+ *     public int getStepState(int index) {
+ *         return stageList.get(index).isFailed() ? STEP_STATE_ERROR : STEP_STATE_NORMAL;
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+
+@SuppressWarnings({"unused", "DefaultFileTemplate"})
+public abstract class StepModel {
+    /**
+     * Step is shown by its index as usual
+     */
+    public static final int STEP_STATE_NORMAL = 0;
+    /**
+     * Step is shown with error color and never shown as done
+     */
+    public static final int STEP_STATE_ERROR = 1;
+    /**
+     * Step was skipped, so it's never shown as done and its step line is always inactive
+     */
+    public static final int STEP_STATE_SKIPPED = 2;
+
+    private final List<Observer> observerList = new ArrayList<>();
+
+    /**
+     * @return total step in the model
+     */
+    public abstract int getStepCount();
+
+    /**
+     * @param index an index of the step
+     * @return description of the step
+     */
+    public abstract String getStepDescription(int index);
+
+    /**
+     * @param index an index of the step
+     * @return drawable resource of the icon that will be shown instead of
+     * done icon drawable of the indicator when the step is done, or -1 to use done icon drawable
+     */
+    public int getStepIconRes(int index) {
+        return -1;
+    }
+
+    /**
+     * @param index an index of the step
+     * @return state of the step, one of {@code STEP_STATE_*} constants
+     */
+    public int getStepState(int index) {
+        return STEP_STATE_NORMAL;
+    }
+
+    /**
+     * Notify that all of the steps were changed, current step index will be reset
+     */
+    public final void notifyDataSetChanged() {
+        for (int index = observerList.size() - 1; index >= 0; index--) {
+            observerList.get(index).onStepSetChanged();
+        }
+    }
+
+    /**
+     * Notify that the step was changed
+     *
+     * @param index an index of the step
+     */
+    public final void notifyStepChanged(int index) {
+        notifyStepRangeChanged(index, 1);
+    }
+
+    /**
+     * Notify that the steps were changed
+     *
+     * @param startIndex an index of the first step that was changed
+     * @param count      number of step that was changed
+     */
+    public final void notifyStepRangeChanged(int startIndex, int count) {
+        for (int index = observerList.size() - 1; index >= 0; index--) {
+            observerList.get(index).onStepRangeChanged(startIndex, count);
+        }
+    }
+
+    /**
+     * Notify that the step was inserted
+     *
+     * @param index an index of the step that was inserted
+     */
+    public final void notifyStepInserted(int index) {
+        notifyStepRangeInserted(index, 1);
+    }
+
+    /**
+     * Notify that the steps were inserted
+     *
+     * @param startIndex an index of the first step that was inserted
+     * @param count      number of step that was inserted
+     */
+    public final void notifyStepRangeInserted(int startIndex, int count) {
+        for (int index = observerList.size() - 1; index >= 0; index--) {
+            observerList.get(index).onStepRangeInserted(startIndex, count);
+        }
+    }
+
+    /**
+     * Notify that the step was removed
+     *
+     * @param index an index of the step that was removed
+     */
+    public final void notifyStepRemoved(int index) {
+        notifyStepRangeRemoved(index, 1);
+    }
+
+    /**
+     * Notify that the steps were removed
+     *
+     * @param startIndex an index of the first step that was removed
+     * @param count      number of step that was removed
+     */
+    public final void notifyStepRangeRemoved(int startIndex, int count) {
+        for (int index = observerList.size() - 1; index >= 0; index--) {
+            observerList.get(index).onStepRangeRemoved(startIndex, count);
+        }
+    }
+
+    void registerObserver(Observer observer) {
+        if (!observerList.contains(observer)) {
+            observerList.add(observer);
+        }
+    }
+
+    void unregisterObserver(Observer observer) {
+        observerList.remove(observer);
+    }
+
+    /**
+     * Shift current step index by the steps that were inserted, so it stays at the same step
+     */
+    static int getIndexAfterInserted(int currentIndex, int startIndex, int count) {
+        return currentIndex >= startIndex ? currentIndex + count : currentIndex;
+    }
+
+    /**
+     * Shift current step index by the steps that were removed, so it stays at the same step
+     * or at the step that replaced the removed step.
+     */
+    static int getIndexAfterRemoved(int currentIndex, int startIndex, int count) {
+        if (currentIndex >= startIndex + count) {
+            return currentIndex - count;
+        }
+        if (currentIndex >= startIndex) {
+            return startIndex;
+        }
+        return currentIndex;
+    }
+
+    /**
+     * Move the value of the steps from the index by the shift, so it stays at the same step.
+     * Positive shift for inserted steps and negative shift for removed steps,
+     * the value of the removed steps is dropped.
+     */
+    static void shiftStepValues(SparseIntArray valueArray, int fromIndex, int shift) {
+        int clearIndex = Math.min(fromIndex, fromIndex + shift);
+        int size = valueArray.size();
+        int position = size;
+        while (position > 0 && valueArray.keyAt(position - 1) >= clearIndex) {
+            position--;
+        }
+        if (position == size) {
+            return;
+        }
+        int[] keys = new int[size - position];
+        int[] values = new int[size - position];
+        for (int index = 0; index < keys.length; index++) {
+            keys[index] = valueArray.keyAt(position + index);
+            values[index] = valueArray.valueAt(position + index);
+        }
+        for (int key : keys) {
+            valueArray.delete(key);
+        }
+        for (int index = 0; index < keys.length; index++) {
+            if (keys[index] >= fromIndex) {
+                valueArray.put(keys[index] + shift, values[index]);
+            }
+        }
+    }
+
+    interface Observer {
+        void onStepSetChanged();
+
+        void onStepRangeChanged(int startIndex, int count);
+
+        void onStepRangeInserted(int startIndex, int count);
+
+        void onStepRangeRemoved(int startIndex, int count);
+    }
+}
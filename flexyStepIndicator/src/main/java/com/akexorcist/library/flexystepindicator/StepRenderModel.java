@@ -0,0 +1,94 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.SparseArray;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable render model of the step descriptions that was prepared by
+ * {@link FlexyStepIndicatorView#prepareStepsAsync(List, FlexyStepIndicatorView.StepPrepareCallback)}.
+ * <p/>
+ * It doesn't touch the view, so it can be created on any thread. The text layouts are taken from
+ * {@link TextLayoutCache} or created with a copy of the description paint,
+ * so the view's paint is never shared between threads.
+ */
+
+final class StepRenderModel {
+    private final List<String> descriptionList;
+    private final float descriptionTextSize;
+    private final int descriptionWidth;
+    private final int descriptionHeight;
+    private final SparseArray<StaticLayout> descriptionLayoutArray;
+
+    private StepRenderModel(List<String> descriptionList, float descriptionTextSize, int descriptionWidth,
+                            int descriptionHeight, SparseArray<StaticLayout> descriptionLayoutArray) {
+        this.descriptionList = descriptionList;
+        this.descriptionTextSize = descriptionTextSize;
+        this.descriptionWidth = descriptionWidth;
+        this.descriptionHeight = descriptionHeight;
+        this.descriptionLayoutArray = descriptionLayoutArray;
+    }
+
+    /**
+     * Measure the description height from all of the steps and keep the text layout
+     * of the steps that will be visible first.
+     *
+     * @param descriptionList  a list of step description, it shouldn't be changed after this
+     * @param descriptionPaint a paint of description text that is owned by the model
+     * @param descriptionWidth a width of description text layout (px)
+     * @param firstIndex       an index of the first visible step
+     * @param lastIndex        an index of the last visible step
+     * @return the render model
+     */
+    static StepRenderModel create(List<String> descriptionList, TextPaint descriptionPaint, int descriptionWidth, int firstIndex, int lastIndex) {
+        List<String> stepDescriptionList = Collections.unmodifiableList(descriptionList);
+        SparseArray<StaticLayout> descriptionLayoutArray = new SparseArray<>();
+        int descriptionHeight = 0;
+        for (int index = 0; index < stepDescriptionList.size(); index++) {
+            String description = stepDescriptionList.get(index);
+            if (description != null) {
+                StaticLayout layout = TextLayoutCache.get(description, descriptionPaint, descriptionWidth, Layout.Alignment.ALIGN_CENTER);
+                if (layout == null) {
+                    layout = TextLayoutCache.create(description, descriptionPaint, descriptionWidth, Layout.Alignment.ALIGN_CENTER);
+                }
+                descriptionHeight = Math.max(descriptionHeight, layout.getHeight());
+                if (index >= firstIndex && index <= lastIndex) {
+                    descriptionLayoutArray.put(index, layout);
+                }
+            }
+        }
+        return new StepRenderModel(stepDescriptionList, descriptionPaint.getTextSize(), descriptionWidth, descriptionHeight, descriptionLayoutArray);
+    }
+
+    /**
+     * Check that the model was prepared with the same description style as the view,
+     * the style may be changed while the model was preparing.
+     */
+    boolean isCompatible(TextPaint descriptionPaint, int descriptionWidth) {
+        return this.descriptionTextSize == descriptionPaint.getTextSize() && this.descriptionWidth == descriptionWidth;
+    }
+
+    List<String> getDescriptionList() {
+        return descriptionList;
+    }
+
+    int getDescriptionHeight() {
+        return descriptionHeight;
+    }
+
+    int getDescriptionLayoutCount() {
+        return descriptionLayoutArray.size();
+    }
+
+    int getDescriptionLayoutIndex(int position) {
+        return descriptionLayoutArray.keyAt(position);
+    }
+
+    StaticLayout getDescriptionLayoutAt(int position) {
+        return descriptionLayoutArray.valueAt(position);
+    }
+}
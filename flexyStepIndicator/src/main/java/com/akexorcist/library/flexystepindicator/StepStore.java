@@ -0,0 +1,187 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.content.res.Resources;
+import android.os.Parcel;
+import android.text.TextUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Step descriptions of the indicator that stored in primitive array.
+ * <p/>
+ * Description can be either string resource id or text. The arrays are owned by the store
+ * and reused when the steps were set again, they will grow only when there are more steps
+ * than their capacity, so setting the steps doesn't box any resource id or copy to the new list.
+ */
+
+final class StepStore {
+    static final int TYPE_NONE = 0;
+    static final int TYPE_RESOURCE = 1;
+    static final int TYPE_TEXT = 2;
+
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] resIdArray = new int[0];
+    private CharSequence[] textArray = new CharSequence[0];
+    private int size;
+    private int type = TYPE_NONE;
+
+    int getType() {
+        return type;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(textArray, 0, size, null);
+        size = 0;
+        type = TYPE_NONE;
+    }
+
+    void setResIds(int[] resIds) {
+        clear();
+        if (resIds == null) {
+            return;
+        }
+        ensureResIdCapacity(resIds.length);
+        System.arraycopy(resIds, 0, resIdArray, 0, resIds.length);
+        size = resIds.length;
+        type = TYPE_RESOURCE;
+    }
+
+    void setResIds(List<Integer> resIdList) {
+        clear();
+        if (resIdList == null) {
+            return;
+        }
+        int count = resIdList.size();
+        ensureResIdCapacity(count);
+        for (int index = 0; index < count; index++) {
+            resIdArray[index] = resIdList.get(index);
+        }
+        size = count;
+        type = TYPE_RESOURCE;
+    }
+
+    void setTexts(CharSequence[] texts) {
+        clear();
+        if (texts == null) {
+            return;
+        }
+        ensureTextCapacity(texts.length);
+        System.arraycopy(texts, 0, textArray, 0, texts.length);
+        size = texts.length;
+        type = TYPE_TEXT;
+    }
+
+    void setTexts(List<? extends CharSequence> textList) {
+        clear();
+        if (textList == null) {
+            return;
+        }
+        int count = textList.size();
+        ensureTextCapacity(count);
+        for (int index = 0; index < count; index++) {
+            textArray[index] = textList.get(index);
+        }
+        size = count;
+        type = TYPE_TEXT;
+    }
+
+    void set(StepStore store) {
+        if (store.type == TYPE_RESOURCE) {
+            clear();
+            ensureResIdCapacity(store.size);
+            System.arraycopy(store.resIdArray, 0, resIdArray, 0, store.size);
+        } else if (store.type == TYPE_TEXT) {
+            clear();
+            ensureTextCapacity(store.size);
+            System.arraycopy(store.textArray, 0, textArray, 0, store.size);
+        } else {
+            clear();
+            return;
+        }
+        size = store.size;
+        type = store.type;
+    }
+
+    String getDescription(Resources resources, int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        if (type == TYPE_RESOURCE) {
+            return resources.getString(resIdArray[index]);
+        }
+        CharSequence text = textArray[index];
+        return text != null ? text.toString() : null;
+    }
+
+    boolean contentEquals(StepStore store) {
+        if (type != store.type || size != store.size) {
+            return false;
+        }
+        for (int index = 0; index < size; index++) {
+            if (type == TYPE_RESOURCE ? resIdArray[index] != store.resIdArray[index]
+                    : !TextUtils.equals(textArray[index], store.textArray[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the steps in the same format as {@link Parcel#writeIntArray(int[])}
+     * or {@link Parcel#writeStringList(List)} without creating the array or the list.
+     */
+    void writeToParcel(Parcel out) {
+        out.writeInt(size);
+        for (int index = 0; index < size; index++) {
+            if (type == TYPE_RESOURCE) {
+                out.writeInt(resIdArray[index]);
+            } else {
+                CharSequence text = textArray[index];
+                out.writeString(text != null ? text.toString() : null);
+            }
+        }
+    }
+
+    void readFromParcel(Parcel in, int type) {
+        clear();
+        int count = in.readInt();
+        if (count < 0) {
+            return;
+        }
+        if (type == TYPE_RESOURCE) {
+            ensureResIdCapacity(count);
+            for (int index = 0; index < count; index++) {
+                resIdArray[index] = in.readInt();
+            }
+        } else {
+            ensureTextCapacity(count);
+            for (int index = 0; index < count; index++) {
+                textArray[index] = in.readString();
+            }
+        }
+        size = count;
+        this.type = type;
+    }
+
+    private void ensureResIdCapacity(int capacity) {
+        if (resIdArray.length < capacity) {
+            resIdArray = new int[getNewCapacity(resIdArray.length, capacity)];
+        }
+    }
+
+    private void ensureTextCapacity(int capacity) {
+        if (textArray.length < capacity) {
+            textArray = new CharSequence[getNewCapacity(textArray.length, capacity)];
+        }
+    }
+
+    private static int getNewCapacity(int currentCapacity, int capacity) {
+        return Math.max(capacity, Math.max(MIN_CAPACITY, currentCapacity + (currentCapacity >> 1)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.graphics.Canvas;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * Process-wide cache of the text layout of step description.
+ * <p/>
+ * The text layout is keyed by text, text size, typeface, width and alignment, so the indicators that show
+ * the same steps with the same style share the same text layout and the text is measured only once.
+ * The paint is copied when the text layout was created, so changing the text size or typeface
+ * of the indicator won't affect the cached text layout.
+ * <p/>
+ * The paint of the cached text layout is used for measuring only and it's never changed,
+ * so the text layout can be looked up and created from any thread. Draw it with
+ * {@link #draw(Canvas, Layout, TextPaint)} and the paint of the view instead of {@link Layout#draw(Canvas)}.
+ */
+
+final class TextLayoutCache {
+    private static final int MAX_SIZE = 512;
+    private static final LruCache<Key, StaticLayout> cache = new LruCache<>(MAX_SIZE);
+
+    private TextLayoutCache() {
+    }
+
+    /**
+     * @return the cached text layout or null if it wasn't created yet
+     */
+    static StaticLayout get(String text, TextPaint paint, int width, Layout.Alignment alignment) {
+        return cache.get(new Key(text, paint, width, alignment));
+    }
+
+    /**
+     * Create the text layout with the copy of the paint and put it in the cache
+     *
+     * @return the text layout
+     */
+    @SuppressWarnings("deprecation")
+    static StaticLayout create(String text, TextPaint paint, int width, Layout.Alignment alignment) {
+        StaticLayout layout = new StaticLayout(text, new TextPaint(paint), width, alignment, 1, 0, true);
+        cache.put(new Key(text, paint, width, alignment), layout);
+        return layout;
+    }
+
+    /**
+     * Draw every line of the text layout with the paint, so the color of the paint
+     * that was shared in the text layout won't be changed
+     *
+     * @param paint a paint that has the same text size, typeface and flags as the text layout
+     */
+    static void draw(Canvas canvas, Layout layout, TextPaint paint) {
+        CharSequence text = layout.getText();
+        for (int line = 0; line < layout.getLineCount(); line++) {
+            canvas.drawText(text, layout.getLineStart(line), layout.getLineVisibleEnd(line),
+                    layout.getLineLeft(line), layout.getLineBaseline(line), paint);
+        }
+    }
+
+    static void clear() {
+        cache.evictAll();
+    }
+
+    private static final class Key {
+        private final String text;
+        private final float textSize;
+        private final Typeface typeface;
+        private final int flags;
+        private final int width;
+        private final Layout.Alignment alignment;
+
+        Key(String text, TextPaint paint, int width, Layout.Alignment alignment) {
+            this.text = text;
+            this.textSize = paint.getTextSize();
+            this.typeface = paint.getTypeface();
+            this.flags = paint.getFlags();
+            this.width = width;
+            this.alignment = alignment;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return textSize == key.textSize
+                    && flags == key.flags
+                    && width == key.width
+                    && typeface == key.typeface
+                    && alignment == key.alignment
+                    && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = text.hashCode();
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + flags;
+            result = 31 * result + width;
+            result = 31 * result + alignment.hashCode();
+            return result;
+        }
+    }
+}
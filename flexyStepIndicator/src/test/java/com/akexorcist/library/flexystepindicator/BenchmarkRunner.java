@@ -0,0 +1,95 @@
+package com.akexorcist.library.flexystepindicator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Minimal benchmark harness that runs on the plain JVM (with Robolectric for Android classes).
+ * <p/>
+ * Each operation will be warmed up before the measurement, then the average latency and
+ * the allocated bytes of the current thread per operation are returned as {@link Result}.
+ */
+
+final class BenchmarkRunner {
+    private static final int DEFAULT_WARMUP_ITERATIONS = 200;
+    private static final int DEFAULT_MEASURE_ITERATIONS = 1000;
+
+    private BenchmarkRunner() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean("flexy.benchmark");
+    }
+
+    static Result measure(String name, Operation operation) {
+        return measure(name, DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASURE_ITERATIONS, operation);
+    }
+
+    static Result measure(String name, int warmupIterations, int measureIterations, Operation operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run(i);
+        }
+        System.gc();
+        long startBytes = getAllocatedBytes();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < measureIterations; i++) {
+            operation.run(i);
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+        long endBytes = getAllocatedBytes();
+        long bytesPerOperation = startBytes < 0 ? -1 : (endBytes - startBytes) / measureIterations;
+        return new Result(name, (double) elapsedTime / measureIterations, bytesPerOperation);
+    }
+
+    /**
+     * Assert that the operation doesn't scale with the number of steps. The factor should be
+     * generous, so the benchmark fails with the linear cost but not with the timing noise.
+     *
+     * @param baseline  a result of the operation with a few steps
+     * @param result    a result of the same operation with many steps
+     * @param maxFactor how many times the result can be slower than the baseline
+     */
+    static void assertNotScaled(Result baseline, Result result, double maxFactor) {
+        assertTrue(result + " is more than " + maxFactor + " times of " + baseline,
+                result.nanosPerOperation <= baseline.nanosPerOperation * maxFactor);
+    }
+
+    /**
+     * @return allocated bytes of current thread or -1 if the JVM doesn't support it
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+                sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+                return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    interface Operation {
+        void run(int iteration);
+    }
+
+    static final class Result {
+        final String name;
+        final double nanosPerOperation;
+        final long bytesPerOperation;
+
+        Result(String name, double nanosPerOperation, long bytesPerOperation) {
+            this.name = name;
+            this.nanosPerOperation = nanosPerOperation;
+            this.bytesPerOperation = bytesPerOperation;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-48s %14.1f ns/op %12d B/op", name, nanosPerOperation, bytesPerOperation);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.graphics.Color;
+import android.os.Parcel;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the parcel format of {@link FlexySavedState}.
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlexySavedStateTest {
+
+    @Test
+    public void roundTrip_stringDescription() {
+        FlexySavedState state = createState(createStyle(), 3, true);
+        state.stepStore.setTexts(Arrays.asList("Cart", "Address", "Payment", "Done"));
+        FlexySavedState restoredState = roundTrip(state);
+        assertSameState(state, restoredState);
+        assertEquals(StepStore.TYPE_TEXT, restoredState.stepStore.getType());
+    }
+
+    @Test
+    public void roundTrip_resourceDescription() {
+        FlexySavedState state = createState(createStyle(), 1, false);
+        state.stepStore.setResIds(new int[]{android.R.string.ok, android.R.string.cancel, android.R.string.yes});
+        FlexySavedState restoredState = roundTrip(state);
+        assertSameState(state, restoredState);
+        assertEquals(StepStore.TYPE_RESOURCE, restoredState.stepStore.getType());
+    }
+
+    @Test
+    public void roundTrip_noDescription() {
+        FlexySavedState state = createState(new FlexyStyle.Builder().build(), 0, false);
+        FlexySavedState restoredState = roundTrip(state);
+        assertSameState(state, restoredState);
+        assertEquals(StepStore.TYPE_NONE, restoredState.stepStore.getType());
+    }
+
+    @Test
+    public void roundTrip_sizeLargerThanPackedSize() {
+        FlexyStyle style = new FlexyStyle.Builder(createStyle())
+                .setLineLength(70000)
+                .setNumberSize(-1)
+                .build();
+        FlexySavedState state = createState(style, 2, true);
+        state.stepStore.setTexts(Arrays.asList("First", "Second", "Third"));
+        assertSameState(state, roundTrip(state));
+    }
+
+    @Test
+    public void parcelFormat_sameAsListFormat() {
+        FlexySavedState state = createState(createStyle(), 2, true);
+        state.stepStore.setTexts(new CharSequence[]{"Cart", "Address", "Payment"});
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.stepStore.writeToParcel(parcel);
+            parcel.setDataPosition(0);
+            assertEquals(Arrays.asList("Cart", "Address", "Payment"), parcel.createStringArrayList());
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @Test
+    public void restore_unknownVersion() {
+        FlexySavedState nextState = createState(createStyle(), 2, true);
+        nextState.stepStore.setTexts(Arrays.asList("Cart", "Done"));
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeParcelable(View.BaseSavedState.EMPTY_STATE, 0);
+            parcel.writeInt(0xFF);
+            parcel.writeInt(12);
+            parcel.writeInt(1);
+            parcel.writeInt(2);
+            parcel.writeInt(3);
+            parcel.writeParcelable(nextState, 0);
+            parcel.setDataPosition(0);
+            FlexySavedState state = FlexySavedState.CREATOR.createFromParcel(parcel);
+            assertFalse(state.isValid);
+
+            // State that was written after the unknown state should be read correctly
+            FlexySavedState restoredNextState = parcel.readParcelable(FlexySavedState.class.getClassLoader());
+            assertSameState(nextState, restoredNextState);
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @Test
+    public void parcelSize_smallerThanLegacyFormat() {
+        List<String> descriptionList = new ArrayList<>();
+        for (int index = 0; index < 50; index++) {
+            descriptionList.add("Step " + (index + 1));
+        }
+        FlexySavedState state = createState(new FlexyStyle.Builder().build(), 10, true);
+        state.stepStore.setTexts(descriptionList);
+        assertTrue(getDataSize(state) < getLegacyDataSize(state, descriptionList.toArray(new String[descriptionList.size()]), null));
+
+        FlexySavedState resourceState = createState(createStyle(), 1, true);
+        resourceState.stepStore.setResIds(new int[]{android.R.string.ok, android.R.string.cancel, android.R.string.yes});
+        assertTrue(getDataSize(resourceState) < getLegacyDataSize(resourceState, null, new int[]{android.R.string.ok, android.R.string.cancel, android.R.string.yes}));
+    }
+
+    @Test
+    public void indicator_saveAndRestore() {
+        FlexyStepIndicator indicator = new FlexyStepIndicator(RuntimeEnvironment.application, null);
+        indicator.applyStyle(createStyle());
+        indicator.setStepDescriptionList(Arrays.asList("Cart", "Address", "Payment"));
+        indicator.setCurrentIndex(2);
+        indicator.setStepClickable(true);
+        FlexySavedState state = roundTrip((FlexySavedState) indicator.onSaveInstanceState());
+
+        FlexyStepIndicator restoredIndicator = new FlexyStepIndicator(RuntimeEnvironment.application, null);
+        restoredIndicator.onRestoreInstanceState(state);
+        assertEquals(indicator.getStyle(), restoredIndicator.getStyle());
+        assertEquals(2, restoredIndicator.getCurrentIndex());
+        assertEquals(3, restoredIndicator.getChildCount());
+    }
+
+    @Test
+    public void indicator_restoreWithSameStructure() {
+        List<String> descriptionList = Arrays.asList("Cart", "Address", "Payment");
+        FlexyStepIndicator indicator = new FlexyStepIndicator(RuntimeEnvironment.application, null);
+        indicator.setStepDescriptionList(descriptionList);
+        indicator.setCurrentIndex(1);
+        FlexySavedState state = roundTrip((FlexySavedState) indicator.onSaveInstanceState());
+
+        FlexyStepIndicator restoredIndicator = new FlexyStepIndicator(RuntimeEnvironment.application, null);
+        restoredIndicator.setStepDescriptionList(descriptionList);
+        final List<Integer> operationList = new ArrayList<>();
+        restoredIndicator.setRenderMetricsListener(new RenderMetricsListener() {
+            @Override
+            public void onRenderMetrics(RenderMetrics metrics) {
+                operationList.add(metrics.getOperation());
+            }
+        });
+        restoredIndicator.onRestoreInstanceState(state);
+        assertFalse(operationList.contains(RenderMetrics.OPERATION_UPDATE_INDICATOR_VIEW));
+        assertEquals(1, restoredIndicator.getCurrentIndex());
+        assertEquals(3, restoredIndicator.getChildCount());
+    }
+
+    private FlexyStyle createStyle() {
+        return new FlexyStyle.Builder()
+                .setStepDescriptionTextColorRes(android.R.color.primary_text_dark)
+                .setStepDescriptionTextSize(42)
+                .setNumberBackgroundDrawableRes(android.R.drawable.btn_default)
+                .setNumberTextSize(36)
+                .setNumberTextColorRes(android.R.color.white)
+                .setNumberSize(90)
+                .setDoneIconDrawableRes(android.R.drawable.ic_menu_add)
+                .setLineActiveColor(Color.GREEN)
+                .setLineInactiveColor(Color.argb(128, 10, 20, 30))
+                .setLineHeight(12)
+                .setLineLength(96)
+                .setLineDashCount(7)
+                .setErrorColor(Color.MAGENTA)
+                .build();
+    }
+
+    private FlexySavedState createState(FlexyStyle style, int currentIndex, boolean isStepClickable) {
+        FlexySavedState state = new FlexySavedState(View.BaseSavedState.EMPTY_STATE);
+        state.style = style;
+        state.currentIndex = currentIndex;
+        state.isStepClickable = isStepClickable;
+        return state;
+    }
+
+    private FlexySavedState roundTrip(FlexySavedState state) {
+        return (FlexySavedState) ParcelTestUtil.parcelRoundTrip(state);
+    }
+
+    private void assertSameState(FlexySavedState expected, FlexySavedState actual) {
+        assertTrue(actual.isValid);
+        assertEquals(expected.style, actual.style);
+        assertEquals(expected.currentIndex, actual.currentIndex);
+        assertEquals(expected.isStepClickable, actual.isStepClickable);
+        assertTrue(expected.stepStore.contentEquals(actual.stepStore));
+    }
+
+    private int getDataSize(FlexySavedState state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel(parcel, 0);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private int getLegacyDataSize(FlexySavedState state, String[] descriptionStrings, int[] descriptionResIds) {
+        FlexyStyle style = state.style;
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeParcelable(View.BaseSavedState.EMPTY_STATE, 0);
+            parcel.writeInt(state.currentIndex);
+            parcel.writeInt(style.getStepDescriptionTextColorRes());
+            parcel.writeInt(style.getStepDescriptionTextSize());
+            parcel.writeInt(style.getNumberBackgroundDrawableRes());
+            parcel.writeInt(style.getNumberTextSize());
+            parcel.writeInt(style.getNumberTextColorRes());
+            parcel.writeInt(style.getNumberSize());
+            parcel.writeInt(style.getDoneIconDrawableRes());
+            parcel.writeInt(style.getDoneBackgroundDrawableRes());
+            parcel.writeInt(style.getLineActiveColor());
+            parcel.writeInt(style.getLineInactiveColor());
+            parcel.writeInt(style.getLineHeight());
+            parcel.writeInt(style.getLineLength());
+            parcel.writeInt(style.getLineDashCount());
+            parcel.writeInt(state.isStepClickable ? 1 : 0);
+            parcel.writeStringArray(descriptionStrings);
+            parcel.writeIntArray(descriptionResIds);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
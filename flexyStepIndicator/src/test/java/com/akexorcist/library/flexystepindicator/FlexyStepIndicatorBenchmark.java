@@ -0,0 +1,152 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Benchmark of render and state update path of {@link FlexyStepIndicator}.
+ * <p/>
+ * It's skipped in normal unit test. Run it with
+ * {@code ./gradlew :flexyStepIndicator:testDebugUnitTest -Pbenchmark}
+ * and it fails when moving to the next step gets slower with the number of steps.
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlexyStepIndicatorBenchmark {
+    private static final int[] STEP_COUNTS = new int[]{3, 10, 50, 200};
+    private static final double MAX_SCALE_FACTOR = 10;
+
+    @Before
+    public void setup() {
+        assumeTrue(BenchmarkRunner.isEnabled());
+    }
+
+    @Test
+    public void updateIndicatorView_newIndicator() {
+        for (final int stepCount : STEP_COUNTS) {
+            final List<String> descriptionList = createDescriptionList(stepCount, "Step");
+            BenchmarkRunner.measure("updateIndicatorView new " + stepCount + " steps", 20, 100, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    createIndicator().setStepDescriptionList(descriptionList);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void updateIndicatorView_rebind() {
+        for (final int stepCount : STEP_COUNTS) {
+            final List<String> firstDescriptionList = createDescriptionList(stepCount, "First");
+            final List<String> secondDescriptionList = createDescriptionList(stepCount, "Second");
+            final FlexyStepIndicator indicator = createIndicator();
+            BenchmarkRunner.measure("updateIndicatorView rebind " + stepCount + " steps", new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    indicator.setStepDescriptionList(iteration % 2 == 0 ? firstDescriptionList : secondDescriptionList);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void setCurrentIndex_churn() {
+        BenchmarkRunner.Result baseline = null;
+        for (final int stepCount : STEP_COUNTS) {
+            final FlexyStepIndicator indicator = createIndicator();
+            indicator.setStepDescriptionList(createDescriptionList(stepCount, "Step"));
+            BenchmarkRunner.Result result = BenchmarkRunner.measure("setCurrentIndex next step " + stepCount + " steps", new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    indicator.setCurrentIndex(iteration % (stepCount + 1));
+                }
+            });
+            // Only the previous and the next step are updated, so it shouldn't depend on the number of steps
+            if (baseline == null) {
+                baseline = result;
+            } else {
+                BenchmarkRunner.assertNotScaled(baseline, result, MAX_SCALE_FACTOR);
+            }
+            BenchmarkRunner.measure("setCurrentIndex first/last " + stepCount + " steps", new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    indicator.setCurrentIndex(iteration % 2 == 0 ? 0 : stepCount - 1);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void createLineDrawable_throughput() {
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(200, 20, Bitmap.Config.ARGB_8888));
+        final LineDrawable.LinePainter linePainter = createLinePainter();
+        BenchmarkRunner.measure("createLineDrawable and draw", new BenchmarkRunner.Operation() {
+            @Override
+            public void run(int iteration) {
+                LineDrawable lineDrawable = new LineDrawable(linePainter);
+                lineDrawable.setLineStyle(5, 60, 6, Color.GREEN, Color.GRAY);
+                lineDrawable.setMirror(iteration % 2 == 0);
+                lineDrawable.setInactive(iteration % 3 == 0);
+                lineDrawable.setBounds(0, 0, 60, 6);
+                lineDrawable.draw(canvas);
+            }
+        });
+    }
+
+    @Test
+    public void savedState_roundTrip() {
+        for (final int stepCount : STEP_COUNTS) {
+            final FlexyStepIndicator indicator = createIndicator();
+            indicator.setStepDescriptionList(createDescriptionList(stepCount, "Step"));
+            indicator.setCurrentIndex(stepCount / 2);
+            BenchmarkRunner.measure("saved state round trip " + stepCount + " steps", 20, 200, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    indicator.onRestoreInstanceState(ParcelTestUtil.parcelRoundTrip(indicator.onSaveInstanceState()));
+                }
+            });
+        }
+    }
+
+    private FlexyStepIndicator createIndicator() {
+        return new FlexyStepIndicator(RuntimeEnvironment.application, null);
+    }
+
+    private List<String> createDescriptionList(int stepCount, String prefix) {
+        List<String> descriptionList = new ArrayList<>();
+        for (int index = 0; index < stepCount; index++) {
+            descriptionList.add(prefix + " " + (index + 1));
+        }
+        return descriptionList;
+    }
+
+    private LineDrawable.LinePainter createLinePainter() {
+        final FlexyStepIndicator indicator = createIndicator();
+        return new LineDrawable.LinePainter() {
+            @Override
+            public void drawActiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+                indicator.drawActiveLine(canvas, dashCount, lineHeight, lineLength, paint);
+            }
+
+            @Override
+            public void drawInactiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+                indicator.drawInactiveLine(canvas, dashCount, lineHeight, lineLength, paint);
+            }
+        };
+    }
+}
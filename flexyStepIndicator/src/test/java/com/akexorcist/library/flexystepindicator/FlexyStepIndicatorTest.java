@@ -0,0 +1,545 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.SystemClock;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.widget.ImageView;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the step click handling, measurement, layout modes and step model of {@link FlexyStepIndicator}.
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlexyStepIndicatorTest {
+    private FlexyStepIndicator indicator;
+    private List<Integer> clickedIndexList;
+
+    @Before
+    public void setup() {
+        indicator = new FlexyStepIndicator(RuntimeEnvironment.application, null);
+        indicator.setStepDescriptionList(Arrays.asList("Cart", "Address", "Payment", "Done"));
+        indicator.setStepClickable(true);
+        clickedIndexList = new ArrayList<>();
+        indicator.setStepClickListener(new FlexyStepIndicator.StepClickListener() {
+            @Override
+            public void onStepClick(int index) {
+                clickedIndexList.add(index);
+            }
+        });
+    }
+
+    @Test
+    public void stepClick() {
+        tapStep(2);
+        assertEquals(Arrays.asList(2), clickedIndexList);
+        assertEquals(2, indicator.getCurrentIndex());
+        assertTrue(indicator.getChildAt(2).isSelected());
+        assertFalse(indicator.getChildAt(3).isSelected());
+    }
+
+    @Test
+    public void stepClick_afterStepRemoved() {
+        indicator.setStepDescriptionList(Arrays.asList("Cart", "Done"));
+        tapStep(1);
+        assertEquals(Arrays.asList(1), clickedIndexList);
+        assertEquals(1, indicator.getCurrentIndex());
+    }
+
+    @Test
+    public void stepClick_notClickable() {
+        indicator.setStepClickable(false);
+        tapStep(2);
+        assertTrue(clickedIndexList.isEmpty());
+        assertEquals(-1, indicator.getCurrentIndex());
+    }
+
+    @Test
+    public void stepClick_accessibility() {
+        View stepView = indicator.getChildAt(2);
+        assertTrue(stepView.createAccessibilityNodeInfo().isClickable());
+        assertTrue(stepView.performAccessibilityAction(AccessibilityNodeInfo.ACTION_CLICK, null));
+        assertEquals(Arrays.asList(2), clickedIndexList);
+        assertEquals(2, indicator.getCurrentIndex());
+
+        indicator.setStepClickable(false);
+        assertFalse(indicator.getChildAt(1).createAccessibilityNodeInfo().isClickable());
+        assertFalse(indicator.getChildAt(1).performAccessibilityAction(AccessibilityNodeInfo.ACTION_CLICK, null));
+        assertEquals(Arrays.asList(2), clickedIndexList);
+    }
+
+    @Test
+    public void stepScrub_oncePerStep() {
+        measureAndLayout(indicator);
+        long time = SystemClock.uptimeMillis();
+        dispatchTouchEvent(MotionEvent.ACTION_DOWN, time, 0);
+        dispatchTouchEvent(MotionEvent.ACTION_MOVE, time, 1);
+        dispatchTouchEvent(MotionEvent.ACTION_MOVE, time, 1);
+        dispatchTouchEvent(MotionEvent.ACTION_MOVE, time, 3);
+        dispatchTouchEvent(MotionEvent.ACTION_UP, time, 3);
+        assertEquals(Arrays.asList(0, 1, 3), clickedIndexList);
+        assertEquals(3, indicator.getCurrentIndex());
+    }
+
+    @Test
+    public void stepScrub_fromCurrentStep() {
+        indicator.setCurrentIndex(1);
+        measureAndLayout(indicator);
+        long time = SystemClock.uptimeMillis();
+        dispatchTouchEvent(MotionEvent.ACTION_DOWN, time, 1);
+        dispatchTouchEvent(MotionEvent.ACTION_MOVE, time, 2);
+        dispatchTouchEvent(MotionEvent.ACTION_UP, time, 2);
+        assertEquals(Arrays.asList(2), clickedIndexList);
+        assertEquals(2, indicator.getCurrentIndex());
+    }
+
+    @Test
+    public void stepClick_wrappedRows() {
+        indicator.setStepWrapEnabled(true);
+        measureAndLayout(indicator);
+        int stepWidth = indicator.getChildAt(0).getMeasuredWidth();
+        int widthMeasureSpec = View.MeasureSpec.makeMeasureSpec((stepWidth * 2) + (stepWidth / 2), View.MeasureSpec.EXACTLY);
+        indicator.measure(widthMeasureSpec, View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        indicator.layout(0, 0, indicator.getMeasuredWidth(), indicator.getMeasuredHeight());
+        long time = SystemClock.uptimeMillis();
+        dispatchTouchEvent(MotionEvent.ACTION_DOWN, time, 3);
+        dispatchTouchEvent(MotionEvent.ACTION_UP, time, 3);
+        assertEquals(Arrays.asList(3), clickedIndexList);
+    }
+
+    @Test
+    public void stepIcon_loadedWhenDone() {
+        indicator.setStepIconDrawableRes(1, android.R.drawable.ic_menu_add);
+        ImageView ivDone = (ImageView) indicator.getChildAt(1).findViewById(R.id.flexy_step_indicator_iv_done);
+        assertNull(ivDone.getDrawable());
+
+        indicator.setCurrentIndex(2);
+        assertEquals(View.VISIBLE, ivDone.getVisibility());
+        assertNotNull(ivDone.getDrawable());
+        assertEquals(android.R.drawable.ic_menu_add, indicator.getStepIconDrawableRes(1));
+    }
+
+    @Test
+    public void stepTransition_retargetedFromCurrentPosition() {
+        indicator.applyStyle(new FlexyStyle.Builder(indicator.getStyle())
+                .setDoneIconDrawableRes(android.R.drawable.ic_menu_add)
+                .build());
+        indicator.setStepDescriptionList(Arrays.asList("Cart", "Address", "Shipping", "Payment", "Review", "Done"));
+        indicator.setCurrentIndex(2);
+        indicator.setStepTransitionEnabled(true);
+        indicator.setStepTransitionDuration(1000);
+
+        indicator.setCurrentIndex(5);
+        // Step that the transition hasn't passed yet is still shown as before
+        assertEquals(0, getRightLineDrawable(2).getFillProgress(), 0.001f);
+        indicator.updateStepTransition(0.5f);
+        assertEquals(3.5f, indicator.getTransitionPosition(), 0.001f);
+        assertEquals(1, getRightLineDrawable(3).getFillProgress(), 0.001f);
+        assertEquals(0, getLeftLineDrawable(4).getFillProgress(), 0.001f);
+        assertEquals(View.VISIBLE, getDoneImageView(2).getVisibility());
+        assertEquals(0.5f, getNumberTextView(3).getAlpha(), 0.001f);
+        assertEquals(0.5f, getDoneImageView(3).getAlpha(), 0.001f);
+
+        // Retarget in the middle of the transition, it shouldn't jump to previous target
+        indicator.setCurrentIndex(1);
+        assertEquals(3.5f, indicator.getTransitionPosition(), 0.001f);
+        assertEquals(0.5f, getDoneImageView(3).getAlpha(), 0.001f);
+        indicator.updateStepTransition(0.5f);
+        assertEquals(2.25f, indicator.getTransitionPosition(), 0.001f);
+        assertEquals(0.5f, getRightLineDrawable(2).getFillProgress(), 0.001f);
+        indicator.updateStepTransition(1);
+        assertEquals(1, indicator.getTransitionPosition(), 0.001f);
+        assertEquals(View.VISIBLE, getNumberTextView(3).getVisibility());
+        assertEquals(View.INVISIBLE, getDoneImageView(3).getVisibility());
+        assertEquals(1, getNumberTextView(3).getAlpha(), 0.001f);
+        assertEquals(1, getLeftLineDrawable(1).getFillProgress(), 0.001f);
+        assertEquals(0, getRightLineDrawable(1).getFillProgress(), 0.001f);
+    }
+
+    @Test
+    public void instantStepClick() {
+        indicator.setInstantStepClickEnabled(true);
+        tapStep(3);
+        tapStep(1);
+        assertEquals(Arrays.asList(3, 1), clickedIndexList);
+        assertEquals(1, indicator.getCurrentIndex());
+
+        indicator.setCurrentIndex(2);
+        assertTrue(indicator.getChildAt(2).isSelected());
+        assertFalse(indicator.getChildAt(3).isSelected());
+    }
+
+    @Test
+    public void fixedSizeMeasure_stateChangeDoesNotRequestLayout() {
+        FlexyStepIndicator fixedSizeIndicator = new FlexyStepIndicator(RuntimeEnvironment.application, null) {
+            @Override
+            protected void updateDoneVisibility(TextView tvNumber, ImageView ivIcon, int index, int selectedIndex) {
+                tvNumber.setVisibility(index < selectedIndex ? View.GONE : View.VISIBLE);
+                ivIcon.setVisibility(index < selectedIndex ? View.VISIBLE : View.GONE);
+            }
+        };
+        fixedSizeIndicator.setFixedSizeMeasureEnabled(true);
+        fixedSizeIndicator.setDoneIconDrawableRes(android.R.drawable.checkbox_on_background);
+        fixedSizeIndicator.setStepDescriptionList(Arrays.asList("Cart", "Shipping address", "Payment", "Done"));
+        measureAndLayout(fixedSizeIndicator);
+        int width = fixedSizeIndicator.getMeasuredWidth();
+        int height = fixedSizeIndicator.getMeasuredHeight();
+        assertEquals(width / 4, fixedSizeIndicator.getChildAt(0).getMeasuredWidth());
+
+        fixedSizeIndicator.setCurrentIndex(3);
+        assertFalse(fixedSizeIndicator.isLayoutRequested());
+        assertFalse(fixedSizeIndicator.getChildAt(0).isLayoutRequested());
+        measureAndLayout(fixedSizeIndicator);
+        assertEquals(width, fixedSizeIndicator.getMeasuredWidth());
+        assertEquals(height, fixedSizeIndicator.getMeasuredHeight());
+    }
+
+    @Test
+    public void fixedSizeMeasure_sameStepSizeAsIndicatorView() {
+        indicator.setFixedSizeMeasureEnabled(true);
+        measureAndLayout(indicator);
+        FlexyStepIndicatorView indicatorView = new FlexyStepIndicatorView(RuntimeEnvironment.application, null);
+        indicatorView.setStepDescriptionList(Arrays.asList("Cart", "Address", "Payment", "Done"));
+        measureAndLayout(indicatorView);
+        assertEquals(indicatorView.getMeasuredWidth(), indicator.getMeasuredWidth());
+        assertEquals(indicatorView.getMeasuredHeight(), indicator.getMeasuredHeight());
+    }
+
+    @Test
+    public void fixedSizeMeasure_descriptionDrawnWithSharedTextLayout() {
+        indicator.setFixedSizeMeasureEnabled(true);
+        measureAndLayout(indicator);
+        StepDescriptionView viewDescription = getDescriptionView(indicator.getChildAt(2));
+        StaticLayout layout = TextLayoutCache.get("Payment", viewDescription.getPaint(), viewDescription.getWidth(), Layout.Alignment.ALIGN_CENTER);
+        assertNotNull(layout);
+        assertEquals(layout.getHeight(), viewDescription.getHeight());
+
+        int layoutColor = layout.getPaint().getColor();
+        viewDescription.setTextColor(Color.RED);
+        viewDescription.draw(new Canvas(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888)));
+        assertEquals(layoutColor, layout.getPaint().getColor());
+    }
+
+    @Test
+    public void stepWrap_wrapsIntoRows() {
+        indicator.setFixedSizeMeasureEnabled(true);
+        indicator.setStepWrapEnabled(true);
+        measureAndLayout(indicator);
+        int stepWidth = indicator.getChildAt(0).getMeasuredWidth();
+        int rowHeight = indicator.getMeasuredHeight();
+
+        int widthMeasureSpec = View.MeasureSpec.makeMeasureSpec((stepWidth * 2) + (stepWidth / 2), View.MeasureSpec.EXACTLY);
+        indicator.measure(widthMeasureSpec, View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        indicator.layout(0, 0, indicator.getMeasuredWidth(), indicator.getMeasuredHeight());
+        assertEquals(rowHeight * 2, indicator.getMeasuredHeight());
+        assertEquals(stepWidth, indicator.getChildAt(1).getLeft());
+        assertEquals(0, indicator.getChildAt(2).getLeft());
+        assertEquals(rowHeight, indicator.getChildAt(2).getTop());
+        assertEquals(rowHeight, indicator.getChildAt(3).getTop());
+    }
+
+    @Test
+    public void verticalOrientation() {
+        indicator.setOrientation(LinearLayout.VERTICAL);
+        measureAndLayout(indicator);
+        assertEquals(4, indicator.getChildCount());
+        for (int index = 1; index < indicator.getChildCount(); index++) {
+            assertEquals(indicator.getChildAt(index - 1).getBottom(), indicator.getChildAt(index).getTop());
+        }
+        View lineView = indicator.getChildAt(1).findViewById(R.id.flexy_step_indicator_view_left_line);
+        assertTrue(lineView.getLayoutParams().height > lineView.getLayoutParams().width);
+    }
+
+    @Test
+    public void stepsFromXml() {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.flexy_steps, "@android:array/emailAddressTypes")
+                .build();
+        FlexyStepIndicator xmlIndicator = new FlexyStepIndicator(RuntimeEnvironment.application, attrs);
+        String[] steps = RuntimeEnvironment.application.getResources().getStringArray(android.R.array.emailAddressTypes);
+        assertEquals(steps.length, xmlIndicator.getChildCount());
+        assertEquals(steps[0], getDescriptionText(xmlIndicator.getChildAt(0)));
+        assertEquals(String.valueOf(steps.length), getNumberText(xmlIndicator.getChildAt(steps.length - 1)));
+    }
+
+    @Test
+    public void stepDescriptionArray() {
+        indicator.setStepDescriptionList(new CharSequence[]{"Cart", "Done"});
+        assertEquals(2, indicator.getChildCount());
+        assertEquals("Done", getDescriptionText(indicator.getChildAt(1)));
+
+        indicator.setStepDescriptionResourceList(new int[]{android.R.string.ok, android.R.string.cancel, android.R.string.yes});
+        assertEquals(3, indicator.getChildCount());
+        assertEquals(RuntimeEnvironment.application.getString(android.R.string.cancel), getDescriptionText(indicator.getChildAt(1)));
+        indicator.setCurrentIndex(1);
+        assertTrue(indicator.getChildAt(1).isSelected());
+        assertFalse(indicator.getChildAt(2).isSelected());
+    }
+
+    @Test
+    public void stepModel_insertAndRemoveKeepCurrentStep() {
+        ListStepModel model = new ListStepModel("Cart", "Payment", "Done");
+        indicator.setStepModel(model);
+        indicator.setCurrentIndex(1);
+        View paymentView = indicator.getChildAt(1);
+
+        model.descriptionList.add(0, "Login");
+        model.notifyStepInserted(0);
+        assertEquals(4, indicator.getChildCount());
+        assertEquals(2, indicator.getCurrentIndex());
+        assertSame(paymentView, indicator.getChildAt(2));
+        assertEquals("3", getNumberText(indicator.getChildAt(2)));
+        assertEquals("Login", getDescriptionText(indicator.getChildAt(0)));
+
+        model.descriptionList.remove(2);
+        model.notifyStepRemoved(2);
+        assertEquals(3, indicator.getChildCount());
+        assertEquals(2, indicator.getCurrentIndex());
+        assertEquals("Done", getDescriptionText(indicator.getChildAt(2)));
+        assertTrue(indicator.getChildAt(2).isSelected());
+
+        tapStep(1);
+        assertEquals(Arrays.asList(1), clickedIndexList);
+    }
+
+    @Test
+    public void stepModel_insertAndRemoveKeepStepIcon() {
+        ListStepModel model = new ListStepModel("Cart", "Payment", "Done");
+        indicator.setStepModel(model);
+        indicator.setStepIconDrawableRes(1, android.R.drawable.ic_menu_add);
+        indicator.setStepIconDrawableRes(2, android.R.drawable.ic_menu_delete);
+
+        model.descriptionList.add(0, "Login");
+        model.notifyStepInserted(0);
+        assertEquals(-1, indicator.getStepIconDrawableRes(1));
+        assertEquals(android.R.drawable.ic_menu_add, indicator.getStepIconDrawableRes(2));
+        assertEquals(android.R.drawable.ic_menu_delete, indicator.getStepIconDrawableRes(3));
+
+        model.descriptionList.remove(2);
+        model.notifyStepRemoved(2);
+        assertEquals(-1, indicator.getStepIconDrawableRes(1));
+        assertEquals(android.R.drawable.ic_menu_delete, indicator.getStepIconDrawableRes(2));
+        assertEquals(-1, indicator.getStepIconDrawableRes(3));
+    }
+
+    @Test
+    public void styleSetters_singleRebuild() {
+        Robolectric.setupActivity(Activity.class).setContentView(indicator);
+        final List<Integer> stepCountList = new ArrayList<>();
+        indicator.setRenderMetricsListener(new RenderMetricsListener() {
+            @Override
+            public void onRenderMetrics(RenderMetrics metrics) {
+                if (metrics.getOperation() == RenderMetrics.OPERATION_UPDATE_INDICATOR_VIEW) {
+                    stepCountList.add(metrics.getStepCount());
+                }
+            }
+        });
+
+        ShadowLooper.pauseMainLooper();
+        indicator.setLineHeight(8);
+        indicator.setLineLength(40);
+        indicator.setNumberTextSize(20);
+        indicator.setStepDescriptionTextSize(20);
+        indicator.setErrorColor(Color.RED);
+        assertTrue(stepCountList.isEmpty());
+        ShadowLooper.unPauseMainLooper();
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(Arrays.asList(4), stepCountList);
+        assertEquals(Color.RED, indicator.getStyle().getErrorColor());
+    }
+
+    @Test
+    public void currentIndex_changedStepOnly() {
+        List<String> descriptionList = new ArrayList<>();
+        for (int index = 0; index < 10; index++) {
+            descriptionList.add("Step " + (index + 1));
+        }
+        indicator.setStepDescriptionList(descriptionList);
+        indicator.setCurrentIndex(4);
+        final List<Integer> updatedStepCountList = new ArrayList<>();
+        indicator.setRenderMetricsListener(new RenderMetricsListener() {
+            @Override
+            public void onRenderMetrics(RenderMetrics metrics) {
+                assertEquals(RenderMetrics.OPERATION_UPDATE_CHANGED_STEP, metrics.getOperation());
+                updatedStepCountList.add(metrics.getUpdatedStepCount());
+            }
+        });
+
+        indicator.setCurrentIndex(5);
+        // Only the previous and the new current step changed their state
+        assertEquals(Arrays.asList(2), updatedStepCountList);
+        assertTrue(indicator.getChildAt(5).isSelected());
+        assertFalse(indicator.getChildAt(6).isSelected());
+    }
+
+    @Test
+    public void stepLayerCache_movedWithCurrentStep() {
+        indicator.setCurrentIndex(1);
+        indicator.setStepLayerCacheEnabled(true);
+        assertEquals(View.LAYER_TYPE_NONE, indicator.getChildAt(0).getLayerType());
+
+        Robolectric.setupActivity(Activity.class).setContentView(indicator);
+        // Hardware acceleration isn't available in the test, so the steps are cached in software layer
+        assertEquals(View.LAYER_TYPE_SOFTWARE, indicator.getChildAt(0).getLayerType());
+        assertEquals(View.LAYER_TYPE_NONE, indicator.getChildAt(1).getLayerType());
+        assertEquals(View.LAYER_TYPE_SOFTWARE, indicator.getChildAt(2).getLayerType());
+
+        indicator.setCurrentIndex(2);
+        assertEquals(View.LAYER_TYPE_SOFTWARE, indicator.getChildAt(1).getLayerType());
+        assertEquals(View.LAYER_TYPE_NONE, indicator.getChildAt(2).getLayerType());
+        assertEquals(View.LAYER_TYPE_SOFTWARE, indicator.getChildAt(3).getLayerType());
+    }
+
+    @Test
+    public void stepModel_changedStepOnly() {
+        ListStepModel model = new ListStepModel("Cart", "Payment", "Done");
+        indicator.setStepModel(model);
+        indicator.setCurrentIndex(2);
+        final List<Integer> updatedStepCountList = new ArrayList<>();
+        indicator.setRenderMetricsListener(new RenderMetricsListener() {
+            @Override
+            public void onRenderMetrics(RenderMetrics metrics) {
+                assertEquals(RenderMetrics.OPERATION_UPDATE_STEP_MODEL, metrics.getOperation());
+                updatedStepCountList.add(metrics.getUpdatedStepCount());
+            }
+        });
+
+        model.errorIndex = 1;
+        model.notifyStepChanged(1);
+        // Step was rebound and its state was updated, but it's counted as one updated step
+        assertEquals(Arrays.asList(1), updatedStepCountList);
+        assertEquals(2, indicator.getCurrentIndex());
+        TextView tvNumber = (TextView) indicator.getChildAt(1).findViewById(R.id.flexy_step_indicator_tv_number);
+        assertEquals(View.VISIBLE, tvNumber.getVisibility());
+    }
+
+    @Test
+    public void stepModel_middleStepUpdateWithoutInflate() {
+        ListStepModel model = new ListStepModel("Cart", "Address", "Payment", "Review", "Done");
+        indicator.setStepModel(model);
+        indicator.setCurrentIndex(3);
+        final List<Integer> inflateCountList = new ArrayList<>();
+        indicator.setRenderMetricsListener(new RenderMetricsListener() {
+            @Override
+            public void onRenderMetrics(RenderMetrics metrics) {
+                inflateCountList.add(metrics.getInflateCount());
+            }
+        });
+
+        model.descriptionList.remove(2);
+        model.notifyStepRemoved(2);
+        model.descriptionList.add(2, "Shipping");
+        model.notifyStepInserted(2);
+        model.descriptionList.set(1, "Shipping address");
+        model.notifyStepChanged(1);
+        // Removed step view is reused by the inserted step, changed step is rebound in place
+        assertEquals(Arrays.asList(0, 0, 0), inflateCountList);
+        assertEquals(5, indicator.getChildCount());
+        assertEquals("Shipping", getDescriptionText(indicator.getChildAt(2)));
+        assertEquals("Shipping address", getDescriptionText(indicator.getChildAt(1)));
+    }
+
+    private String getNumberText(View stepView) {
+        return ((TextView) stepView.findViewById(R.id.flexy_step_indicator_tv_number)).getText().toString();
+    }
+
+    private String getDescriptionText(View stepView) {
+        return getDescriptionView(stepView).getText();
+    }
+
+    private StepDescriptionView getDescriptionView(View stepView) {
+        return (StepDescriptionView) stepView.findViewById(R.id.flexy_step_indicator_view_description);
+    }
+
+    private TextView getNumberTextView(int index) {
+        return (TextView) indicator.getChildAt(index).findViewById(R.id.flexy_step_indicator_tv_number);
+    }
+
+    private ImageView getDoneImageView(int index) {
+        return (ImageView) indicator.getChildAt(index).findViewById(R.id.flexy_step_indicator_iv_done);
+    }
+
+    private LineDrawable getLeftLineDrawable(int index) {
+        return (LineDrawable) indicator.getChildAt(index).findViewById(R.id.flexy_step_indicator_view_left_line).getBackground();
+    }
+
+    private LineDrawable getRightLineDrawable(int index) {
+        return (LineDrawable) indicator.getChildAt(index).findViewById(R.id.flexy_step_indicator_view_right_divider).getBackground();
+    }
+
+    private void tapStep(int index) {
+        measureAndLayout(indicator);
+        long time = SystemClock.uptimeMillis();
+        dispatchTouchEvent(MotionEvent.ACTION_DOWN, time, index);
+        dispatchTouchEvent(MotionEvent.ACTION_UP, time, index);
+    }
+
+    private void dispatchTouchEvent(int action, long downTime, int stepIndex) {
+        View stepView = indicator.getChildAt(stepIndex);
+        float x = (stepView.getLeft() + stepView.getRight()) / 2f;
+        float y = (stepView.getTop() + stepView.getBottom()) / 2f;
+        MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action, x, y, 0);
+        indicator.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    private void measureAndLayout(View view) {
+        int measureSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        view.measure(measureSpec, measureSpec);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    private static class ListStepModel extends StepModel {
+        final List<String> descriptionList;
+        int errorIndex = -1;
+
+        ListStepModel(String... descriptions) {
+            descriptionList = new ArrayList<>(Arrays.asList(descriptions));
+        }
+
+        @Override
+        public int getStepCount() {
+            return descriptionList.size();
+        }
+
+        @Override
+        public String getStepDescription(int index) {
+            return descriptionList.get(index);
+        }
+
+        @Override
+        public int getStepState(int index) {
+            return index == errorIndex ? STEP_STATE_ERROR : STEP_STATE_NORMAL;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.view.View;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.view.accessibility.AccessibilityNodeProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the step preparation, text layout, style update and accessibility of {@link FlexyStepIndicatorView}.
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlexyStepIndicatorViewTest {
+
+    @Test
+    public void prepareStepsAsync() {
+        List<String> descriptionList = Arrays.asList("Cart", "Shipping address", "Payment", "Done");
+        FlexyStepIndicatorView expectedView = createIndicatorView();
+        expectedView.setStepDescriptionList(descriptionList);
+
+        FlexyStepIndicatorView indicatorView = createIndicatorView();
+        final boolean[] isPrepared = new boolean[1];
+        indicatorView.prepareStepsAsync(descriptionList, new DirectExecutor(), new FlexyStepIndicatorView.StepPrepareCallback() {
+            @Override
+            public void onStepsPrepared() {
+                isPrepared[0] = true;
+            }
+        });
+        assertTrue(isPrepared[0]);
+        assertSameSize(expectedView, indicatorView);
+    }
+
+    @Test
+    public void prepareStepsAsync_replacedBeforePrepared() {
+        FlexyStepIndicatorView expectedView = createIndicatorView();
+        expectedView.setStepDescriptionList(Arrays.asList("Cart", "Done"));
+
+        FlexyStepIndicatorView indicatorView = createIndicatorView();
+        DeferredExecutor executor = new DeferredExecutor();
+        final boolean[] isPrepared = new boolean[1];
+        indicatorView.prepareStepsAsync(Arrays.asList("Cart", "Address", "Payment", "Done"), executor, new FlexyStepIndicatorView.StepPrepareCallback() {
+            @Override
+            public void onStepsPrepared() {
+                isPrepared[0] = true;
+            }
+        });
+        indicatorView.setStepDescriptionList(Arrays.asList("Cart", "Done"));
+        executor.runAll();
+        assertFalse(isPrepared[0]);
+        assertSameSize(expectedView, indicatorView);
+    }
+
+    @Test
+    public void textLayoutCache_sharedBetweenIndicators() {
+        TextLayoutCache.clear();
+        List<String> descriptionList = Arrays.asList("Cart", "Shipping address", "Payment", "Done");
+        FlexyStepIndicatorView firstView = createIndicatorView();
+        final List<Integer> firstTextLayoutCountList = new ArrayList<>();
+        firstView.setRenderMetricsListener(createTextLayoutCounter(firstTextLayoutCountList));
+        firstView.setStepDescriptionList(descriptionList);
+
+        FlexyStepIndicatorView secondView = createIndicatorView();
+        final List<Integer> secondTextLayoutCountList = new ArrayList<>();
+        secondView.setRenderMetricsListener(createTextLayoutCounter(secondTextLayoutCountList));
+        secondView.setStepDescriptionList(descriptionList);
+
+        assertEquals(Arrays.asList(descriptionList.size()), firstTextLayoutCountList);
+        assertEquals(Arrays.asList(0), secondTextLayoutCountList);
+    }
+
+    @Test
+    public void stepLayout_measuresVisibleStepsOnly() {
+        TextLayoutCache.clear();
+        List<String> descriptionList = new ArrayList<>();
+        for (int index = 0; index < 200; index++) {
+            descriptionList.add("Step " + (index + 1));
+        }
+        FlexyStepIndicatorView indicatorView = createIndicatorView();
+        List<Integer> textLayoutCountList = new ArrayList<>();
+        indicatorView.setRenderMetricsListener(createTextLayoutCounter(textLayoutCountList));
+        indicatorView.setStepDescriptionList(descriptionList);
+
+        assertEquals(1, textLayoutCountList.size());
+        assertTrue(textLayoutCountList.get(0) > 0);
+        assertTrue(textLayoutCountList.get(0) < descriptionList.size());
+    }
+
+    @Test
+    public void stepTransition_retargetedFromCurrentPosition() {
+        FlexyStepIndicatorView indicatorView = createIndicatorView();
+        indicatorView.setStepDescriptionList(Arrays.asList("Cart", "Address", "Shipping", "Payment", "Review", "Done"));
+        indicatorView.setStepTransitionEnabled(false);
+        indicatorView.setCurrentIndex(2);
+        indicatorView.setStepTransitionEnabled(true);
+        indicatorView.setStepTransitionDuration(1000);
+
+        indicatorView.setCurrentIndex(5);
+        indicatorView.updateStepTransition(0.5f);
+        assertEquals(3.5f, indicatorView.getTransitionPosition(), 0.001f);
+
+        // Retarget in the middle of the transition, it shouldn't jump to previous target
+        indicatorView.setCurrentIndex(1);
+        assertEquals(3.5f, indicatorView.getTransitionPosition(), 0.001f);
+        indicatorView.updateStepTransition(0.5f);
+        assertEquals(2.25f, indicatorView.getTransitionPosition(), 0.001f);
+        indicatorView.updateStepTransition(1);
+        assertEquals(1, indicatorView.getTransitionPosition(), 0.001f);
+    }
+
+    @Test
+    public void styleSetters_singleRebuild() {
+        FlexyStepIndicatorView indicatorView = createIndicatorView();
+        indicatorView.setStepDescriptionList(Arrays.asList("Cart", "Address", "Payment", "Done"));
+        Robolectric.setupActivity(Activity.class).setContentView(indicatorView);
+        List<Integer> textLayoutCountList = new ArrayList<>();
+        indicatorView.setRenderMetricsListener(createTextLayoutCounter(textLayoutCountList));
+
+        ShadowLooper.pauseMainLooper();
+        indicatorView.setLineHeight(8);
+        indicatorView.setLineLength(40);
+        indicatorView.setNumberTextSize(20);
+        indicatorView.setStepDescriptionTextSize(20);
+        indicatorView.setErrorColor(Color.RED);
+        assertTrue(textLayoutCountList.isEmpty());
+        ShadowLooper.unPauseMainLooper();
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(1, textLayoutCountList.size());
+        assertEquals(Color.RED, indicatorView.getStyle().getErrorColor());
+    }
+
+    @Test
+    public void styleUpdate_batched() {
+        FlexyStepIndicatorView indicatorView = createIndicatorView();
+        indicatorView.setStepDescriptionList(Arrays.asList("Cart", "Address", "Payment", "Done"));
+        List<Integer> textLayoutCountList = new ArrayList<>();
+        indicatorView.setRenderMetricsListener(createTextLayoutCounter(textLayoutCountList));
+
+        indicatorView.beginStyleUpdate();
+        indicatorView.setLineLength(40);
+        indicatorView.setStepDescriptionTextSize(20);
+        assertTrue(textLayoutCountList.isEmpty());
+        indicatorView.endStyleUpdate();
+        assertEquals(1, textLayoutCountList.size());
+    }
+
+    @Test
+    public void accessibility_stepExposedAsVirtualView() {
+        FlexyStepIndicatorView indicatorView = createIndicatorView();
+        indicatorView.setStepDescriptionList(Arrays.asList("Cart", "Address", "Payment", "Done"));
+        indicatorView.setStepTransitionEnabled(false);
+        indicatorView.setCurrentIndex(1);
+        indicatorView.setStepClickable(true);
+        final List<Integer> clickedIndexList = new ArrayList<>();
+        indicatorView.setStepClickListener(new FlexyStepIndicator.StepClickListener() {
+            @Override
+            public void onStepClick(int stepIndex) {
+                clickedIndexList.add(stepIndex);
+            }
+        });
+        Robolectric.setupActivity(Activity.class).setContentView(indicatorView);
+
+        AccessibilityNodeProvider provider = indicatorView.getAccessibilityNodeProvider();
+        AccessibilityNodeInfo selectedNode = provider.createAccessibilityNodeInfo(1);
+        assertEquals("Address", selectedNode.getContentDescription().toString());
+        assertTrue(selectedNode.isSelected());
+        assertTrue(selectedNode.isClickable());
+        AccessibilityNodeInfo nextNode = provider.createAccessibilityNodeInfo(2);
+        assertEquals("Payment", nextNode.getContentDescription().toString());
+        assertFalse(nextNode.isSelected());
+
+        assertTrue(provider.performAction(2, AccessibilityNodeInfo.ACTION_CLICK, null));
+        assertEquals(Arrays.asList(2), clickedIndexList);
+        assertEquals(2, indicatorView.getCurrentIndex());
+        assertTrue(provider.createAccessibilityNodeInfo(2).isSelected());
+    }
+
+    private FlexyStepIndicatorView createIndicatorView() {
+        return new FlexyStepIndicatorView(RuntimeEnvironment.application, null);
+    }
+
+    private RenderMetricsListener createTextLayoutCounter(final List<Integer> textLayoutCountList) {
+        return new RenderMetricsListener() {
+            @Override
+            public void onRenderMetrics(RenderMetrics metrics) {
+                if (metrics.getOperation() == RenderMetrics.OPERATION_UPDATE_INDICATOR_VIEW) {
+                    textLayoutCountList.add(metrics.getTextLayoutCount());
+                }
+            }
+        };
+    }
+
+    private void assertSameSize(View expectedView, View view) {
+        int measureSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        expectedView.measure(measureSpec, measureSpec);
+        view.measure(measureSpec, measureSpec);
+        assertEquals(expectedView.getMeasuredWidth(), view.getMeasuredWidth());
+        assertEquals(expectedView.getMeasuredHeight(), view.getMeasuredHeight());
+    }
+
+    private static class DirectExecutor implements Executor {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    }
+
+    private static class DeferredExecutor implements Executor {
+        private final List<Runnable> runnableList = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable runnable) {
+            runnableList.add(runnable);
+        }
+
+        void runAll() {
+            for (Runnable runnable : runnableList) {
+                runnable.run();
+            }
+            runnableList.clear();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the fill progress, painter hook and size of {@link LineDrawable}.
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class LineDrawableTest {
+    private static final int ACTIVE_COLOR = Color.GREEN;
+    private static final int INACTIVE_COLOR = Color.BLUE;
+
+    private LineDrawable lineDrawable;
+    private List<String> paintedLineList;
+    private List<Integer> paintedColorList;
+    private int invalidateCount;
+
+    @Before
+    public void setup() {
+        paintedLineList = new ArrayList<>();
+        paintedColorList = new ArrayList<>();
+        lineDrawable = new LineDrawable(new LineDrawable.LinePainter() {
+            @Override
+            public void drawActiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+                paintedLineList.add("active");
+                paintedColorList.add(paint.getColor());
+            }
+
+            @Override
+            public void drawInactiveLine(Canvas canvas, int dashCount, int lineHeight, int lineLength, Paint paint) {
+                paintedLineList.add("inactive");
+                paintedColorList.add(paint.getColor());
+            }
+        });
+        lineDrawable.setLineStyle(5, 30, 4, ACTIVE_COLOR, INACTIVE_COLOR);
+        lineDrawable.setBounds(0, 0, 135, 4);
+        lineDrawable.setCallback(new Drawable.Callback() {
+            @Override
+            public void invalidateDrawable(Drawable who) {
+                invalidateCount++;
+            }
+
+            @Override
+            public void scheduleDrawable(Drawable who, Runnable what, long when) {
+            }
+
+            @Override
+            public void unscheduleDrawable(Drawable who, Runnable what) {
+            }
+        });
+    }
+
+    @Test
+    public void fillProgress_clamped() {
+        lineDrawable.setFillProgress(2);
+        assertEquals(1, lineDrawable.getFillProgress(), 0);
+        assertEquals(0, invalidateCount);
+
+        lineDrawable.setFillProgress(-1);
+        assertEquals(0, lineDrawable.getFillProgress(), 0);
+        assertEquals(1, invalidateCount);
+
+        lineDrawable.setInactive(true);
+        assertEquals(1, invalidateCount);
+        lineDrawable.setFillProgress(0.5f);
+        assertEquals(0.5f, lineDrawable.getFillProgress(), 0);
+        assertEquals(2, invalidateCount);
+    }
+
+    @Test
+    public void draw_filledLine() {
+        draw();
+        // Filled line keeps the painter hook of the original bitmap line, so it's drawn by drawInactiveLine
+        assertEquals(Arrays.asList("inactive"), paintedLineList);
+        assertEquals(Arrays.asList(ACTIVE_COLOR), paintedColorList);
+    }
+
+    @Test
+    public void draw_emptyLine() {
+        lineDrawable.setInactive(true);
+        draw();
+        assertEquals(Arrays.asList("active"), paintedLineList);
+        assertEquals(Arrays.asList(INACTIVE_COLOR), paintedColorList);
+    }
+
+    @Test
+    public void draw_partiallyFilledLine() {
+        lineDrawable.setFillProgress(0.5f);
+        draw();
+        assertEquals(Arrays.asList("inactive", "active"), paintedLineList);
+        assertEquals(Arrays.asList(ACTIVE_COLOR, INACTIVE_COLOR), paintedColorList);
+    }
+
+    @Test
+    public void draw_alpha() {
+        lineDrawable.setAlpha(128);
+        assertEquals(1, invalidateCount);
+        draw();
+        assertEquals(128, Color.alpha(paintedColorList.get(0)));
+    }
+
+    @Test
+    public void draw_emptyBounds() {
+        lineDrawable.setBounds(0, 0, 0, 0);
+        draw();
+        assertTrue(paintedLineList.isEmpty());
+    }
+
+    @Test
+    public void mirror() {
+        lineDrawable.setMirror(true);
+        lineDrawable.setMirror(true);
+        assertTrue(lineDrawable.isMirror());
+        assertEquals(1, invalidateCount);
+        draw();
+        assertEquals(Arrays.asList("inactive"), paintedLineList);
+    }
+
+    @Test
+    public void vertical_intrinsicSize() {
+        assertFalse(lineDrawable.isVertical());
+        assertEquals(30, lineDrawable.getIntrinsicWidth());
+        assertEquals(4, lineDrawable.getIntrinsicHeight());
+
+        lineDrawable.setVertical(true);
+        assertTrue(lineDrawable.isVertical());
+        assertEquals(1, invalidateCount);
+        assertEquals(4, lineDrawable.getIntrinsicWidth());
+        assertEquals(30, lineDrawable.getIntrinsicHeight());
+    }
+
+    private void draw() {
+        lineDrawable.draw(new Canvas(Bitmap.createBitmap(200, 200, Bitmap.Config.ARGB_8888)));
+    }
+}
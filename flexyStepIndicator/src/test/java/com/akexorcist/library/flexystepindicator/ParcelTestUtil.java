@@ -0,0 +1,34 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.lang.reflect.Field;
+
+/**
+ * Parcel helper that shared by the unit tests and the benchmarks.
+ */
+
+final class ParcelTestUtil {
+    private ParcelTestUtil() {
+    }
+
+    /**
+     * Write the state to the parcel then read it back with its creator
+     */
+    static Parcelable parcelRoundTrip(Parcelable state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            Field creatorField = state.getClass().getField("CREATOR");
+            creatorField.setAccessible(true);
+            Parcelable.Creator<?> creator = (Parcelable.Creator<?>) creatorField.get(null);
+            return (Parcelable) creator.createFromParcel(parcel);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new AssertionError(e);
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test of the resource sharing of {@link ResourceCache}.
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class ResourceCacheTest {
+    private Context context;
+
+    @Before
+    public void setup() {
+        ResourceCache.clear();
+        context = RuntimeEnvironment.application;
+    }
+
+    @Test
+    public void colorStateList_sharedInstance() {
+        assertSame(ResourceCache.getColorStateList(context, android.R.color.primary_text_dark),
+                ResourceCache.getColorStateList(context, android.R.color.primary_text_dark));
+    }
+
+    @Test
+    public void drawable_sharedConstantState() {
+        Drawable firstDrawable = ResourceCache.getDrawable(context, android.R.drawable.btn_default);
+        Drawable secondDrawable = ResourceCache.getDrawable(context, android.R.drawable.btn_default);
+        assertNotSame(firstDrawable, secondDrawable);
+        assertSame(firstDrawable.getConstantState(), secondDrawable.getConstantState());
+    }
+}
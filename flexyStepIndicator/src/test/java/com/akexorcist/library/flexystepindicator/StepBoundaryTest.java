@@ -0,0 +1,91 @@
+package com.akexorcist.library.flexystepindicator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test of the step hit testing of {@link StepBoundary} that runs on the plain JVM without Robolectric.
+ */
+
+public class StepBoundaryTest {
+    private StepBoundary stepBoundary;
+
+    @Before
+    public void setup() {
+        stepBoundary = new StepBoundary();
+    }
+
+    @Test
+    public void horizontal() {
+        stepBoundary.reset(3, false, false);
+        stepBoundary.setStepBounds(0, 10, 5, 110, 85);
+        stepBoundary.setStepBounds(1, 110, 0, 220, 90);
+        stepBoundary.setStepBounds(2, 220, 5, 320, 85);
+        assertEquals(-1, stepBoundary.getStepIndexAt(9, 40));
+        assertEquals(0, stepBoundary.getStepIndexAt(10, 40));
+        assertEquals(1, stepBoundary.getStepIndexAt(110, 40));
+        assertEquals(1, stepBoundary.getStepIndexAt(150, 0));
+        assertEquals(-1, stepBoundary.getStepIndexAt(250, 0));
+        assertEquals(2, stepBoundary.getStepIndexAt(319, 84));
+        assertEquals(-1, stepBoundary.getStepIndexAt(320, 40));
+    }
+
+    @Test
+    public void horizontal_reversed() {
+        stepBoundary.reset(3, false, false);
+        stepBoundary.setStepBounds(0, 200, 0, 300, 80);
+        stepBoundary.setStepBounds(1, 100, 0, 200, 80);
+        stepBoundary.setStepBounds(2, 0, 0, 100, 80);
+        assertEquals(2, stepBoundary.getStepIndexAt(0, 40));
+        assertEquals(1, stepBoundary.getStepIndexAt(150, 40));
+        assertEquals(0, stepBoundary.getStepIndexAt(299, 40));
+        assertEquals(-1, stepBoundary.getStepIndexAt(300, 40));
+    }
+
+    @Test
+    public void vertical() {
+        stepBoundary.reset(3, true, true);
+        stepBoundary.setStepBounds(0, 0, 0, 200, 60);
+        stepBoundary.setStepBounds(1, 0, 60, 200, 120);
+        stepBoundary.setStepBounds(2, 0, 120, 200, 180);
+        assertEquals(0, stepBoundary.getStepIndexAt(100, 59));
+        assertEquals(1, stepBoundary.getStepIndexAt(100, 60));
+        assertEquals(2, stepBoundary.getStepIndexAt(100, 179));
+        assertEquals(-1, stepBoundary.getStepIndexAt(100, 180));
+        assertEquals(-1, stepBoundary.getStepIndexAt(200, 100));
+    }
+
+    @Test
+    public void wrapped() {
+        stepBoundary.reset(5, false, true);
+        stepBoundary.setStepBounds(0, 0, 0, 100, 80);
+        stepBoundary.setStepBounds(1, 100, 0, 200, 60);
+        stepBoundary.setStepBounds(2, 0, 80, 100, 160);
+        stepBoundary.setStepBounds(3, 100, 80, 200, 160);
+        stepBoundary.setStepBounds(4, 200, 80, 300, 160);
+        assertEquals(0, stepBoundary.getStepIndexAt(50, 70));
+        assertEquals(-1, stepBoundary.getStepIndexAt(150, 70));
+        assertEquals(-1, stepBoundary.getStepIndexAt(250, 40));
+        assertEquals(2, stepBoundary.getStepIndexAt(50, 80));
+        assertEquals(4, stepBoundary.getStepIndexAt(250, 159));
+        assertEquals(-1, stepBoundary.getStepIndexAt(250, 160));
+    }
+
+    @Test
+    public void noStep() {
+        stepBoundary.reset(0, false, false);
+        assertEquals(-1, stepBoundary.getStepIndexAt(0, 0));
+    }
+
+    @Test
+    public void stepBounds() {
+        stepBoundary.reset(20, false, false);
+        stepBoundary.setStepBounds(19, 1900, 0, 2000, 80);
+        int[] bounds = new int[4];
+        stepBoundary.getStepBounds(19, bounds);
+        assertArrayEquals(new int[]{1900, 0, 2000, 80}, bounds);
+    }
+}
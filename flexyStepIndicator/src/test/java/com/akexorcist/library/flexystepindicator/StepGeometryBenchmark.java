@@ -0,0 +1,72 @@
+package com.akexorcist.library.flexystepindicator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Benchmark of {@link StepGeometry} that runs on the plain JVM without Robolectric.
+ * <p/>
+ * It's skipped in normal unit test. Run it with
+ * {@code ./gradlew :flexyStepIndicator:testDebugUnitTest -Pbenchmark}
+ * and it fails when the hit testing gets slower with the number of steps.
+ */
+
+public class StepGeometryBenchmark {
+    private static final int[] STEP_COUNTS = new int[]{3, 10, 50, 200};
+    private static final double MAX_SCALE_FACTOR = 10;
+
+    @Before
+    public void setup() {
+        assumeTrue(BenchmarkRunner.isEnabled());
+    }
+
+    @Test
+    public void stepBounds_allSteps() {
+        for (final int stepCount : STEP_COUNTS) {
+            final StepGeometry stepGeometry = createStepGeometry(stepCount);
+            final int[] bounds = new int[4];
+            BenchmarkRunner.measure("stepBounds " + stepCount + " steps", new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    for (int index = 0; index < stepCount; index++) {
+                        stepGeometry.getStartLineBounds(index, bounds);
+                        stepGeometry.getEndLineBounds(index, bounds);
+                        stepGeometry.getNumberBounds(index, bounds);
+                        stepGeometry.getDescriptionBounds(index, bounds);
+                    }
+                }
+            });
+        }
+    }
+
+    @Test
+    public void stepIndexAt() {
+        BenchmarkRunner.Result baseline = null;
+        for (final int stepCount : STEP_COUNTS) {
+            final StepGeometry stepGeometry = createStepGeometry(stepCount);
+            final int contentWidth = stepGeometry.getContentWidth();
+            BenchmarkRunner.Result result = BenchmarkRunner.measure("stepIndexAt " + stepCount + " steps", new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    stepGeometry.getStepIndexAt(iteration % contentWidth);
+                }
+            });
+            // Step index is calculated from the fixed step width, so it shouldn't depend on the number of steps
+            if (baseline == null) {
+                baseline = result;
+            } else {
+                BenchmarkRunner.assertNotScaled(baseline, result, MAX_SCALE_FACTOR);
+            }
+        }
+    }
+
+    private StepGeometry createStepGeometry(int stepCount) {
+        StepGeometry stepGeometry = new StepGeometry();
+        stepGeometry.setStyle(new FlexyStyle.Builder().setNumberSize(40).setLineLength(30).setLineHeight(4).build(), 6, 10);
+        stepGeometry.setStepCount(stepCount);
+        stepGeometry.setDescriptionHeight(20);
+        return stepGeometry;
+    }
+}
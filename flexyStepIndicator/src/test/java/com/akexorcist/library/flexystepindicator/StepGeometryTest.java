@@ -0,0 +1,99 @@
+package com.akexorcist.library.flexystepindicator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of {@link StepGeometry} that runs on the plain JVM without Robolectric.
+ */
+
+public class StepGeometryTest {
+    private StepGeometry stepGeometry;
+    private int[] bounds;
+
+    @Before
+    public void setup() {
+        stepGeometry = new StepGeometry();
+        stepGeometry.setStyle(new FlexyStyle.Builder().setNumberSize(40).setLineLength(30).setLineHeight(4).build(), 6, 10);
+        stepGeometry.setStepCount(5);
+        stepGeometry.setDescriptionHeight(20);
+        stepGeometry.setOrigin(8, 2);
+        bounds = new int[4];
+    }
+
+    @Test
+    public void size() {
+        assertEquals(112, stepGeometry.getStepWidth());
+        assertEquals(40, stepGeometry.getTopRowHeight());
+        assertEquals(92, stepGeometry.getDescriptionWidth());
+        assertEquals(560, stepGeometry.getContentWidth());
+        assertEquals(80, stepGeometry.getContentHeight());
+    }
+
+    @Test
+    public void stepBounds() {
+        stepGeometry.getStepBounds(2, bounds);
+        assertArrayEquals(new int[]{232, 2, 344, 82}, bounds);
+        stepGeometry.getNumberBounds(2, bounds);
+        assertArrayEquals(new int[]{268, 2, 308, 42}, bounds);
+        stepGeometry.getStartLineBounds(2, bounds);
+        assertArrayEquals(new int[]{232, 20, 262, 24}, bounds);
+        stepGeometry.getEndLineBounds(2, bounds);
+        assertArrayEquals(new int[]{314, 20, 344, 24}, bounds);
+        stepGeometry.getDescriptionBounds(2, bounds);
+        assertArrayEquals(new int[]{242, 52, 334, 72}, bounds);
+    }
+
+    @Test
+    public void stepLine_onlyBetweenSteps() {
+        assertFalse(stepGeometry.hasStartLine(0));
+        assertTrue(stepGeometry.hasEndLine(0));
+        assertTrue(stepGeometry.hasStartLine(4));
+        assertFalse(stepGeometry.hasEndLine(4));
+    }
+
+    @Test
+    public void stepIndexAt() {
+        assertEquals(-1, stepGeometry.getStepIndexAt(7));
+        assertEquals(0, stepGeometry.getStepIndexAt(8));
+        assertEquals(0, stepGeometry.getStepIndexAt(119.5f));
+        assertEquals(1, stepGeometry.getStepIndexAt(120));
+        assertEquals(4, stepGeometry.getStepIndexAt(567));
+        assertEquals(-1, stepGeometry.getStepIndexAt(568));
+    }
+
+    @Test
+    public void visibleIndex() {
+        assertEquals(0, stepGeometry.getFirstVisibleIndex(0, 200));
+        assertEquals(1, stepGeometry.getLastVisibleIndex(0, 200));
+        assertEquals(2, stepGeometry.getFirstVisibleIndex(300, 200));
+        assertEquals(4, stepGeometry.getLastVisibleIndex(300, 200));
+        assertEquals(4, stepGeometry.getLastVisibleIndex(1000, 200));
+    }
+
+    @Test
+    public void visibleIndex_noStep() {
+        stepGeometry.setStepCount(0);
+        assertEquals(-1, stepGeometry.getFirstVisibleIndex(0, 200));
+        assertEquals(-1, stepGeometry.getLastVisibleIndex(0, 200));
+        assertEquals(-1, stepGeometry.getStepIndexAt(10));
+        assertEquals(0, stepGeometry.getContentWidth());
+    }
+
+    @Test
+    public void centerScrollX() {
+        assertEquals(188, stepGeometry.getCenterScrollX(2, 200));
+        assertEquals(stepGeometry.getCenterScrollX(4, 200), stepGeometry.getCenterScrollX(10, 200));
+    }
+
+    @Test
+    public void lineContent() {
+        assertEquals(105, StepGeometry.getLineContentWidth(4, 30), 0);
+        assertEquals(120, StepGeometry.getDashStart(2, 30), 0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.akexorcist.library.flexystepindicator;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test of the icon decoding and sharing of {@link StepIconAtlas}.
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class StepIconAtlasTest {
+    private Context context;
+    private RenderMetrics renderMetrics;
+
+    @Before
+    public void setup() {
+        ResourceCache.clear();
+        StepIconAtlas.clear();
+        context = RuntimeEnvironment.application;
+        renderMetrics = new RenderMetrics();
+        renderMetrics.begin();
+    }
+
+    @Test
+    public void icon_decodedOnceAtSize() {
+        Drawable firstIcon = StepIconAtlas.getIcon(context, android.R.drawable.ic_menu_add, 48, renderMetrics);
+        Drawable secondIcon = StepIconAtlas.getIcon(context, android.R.drawable.ic_menu_add, 48, renderMetrics);
+        assertNotSame(firstIcon, secondIcon);
+        assertSame(firstIcon.getConstantState(), secondIcon.getConstantState());
+        assertEquals(48, Math.max(firstIcon.getIntrinsicWidth(), firstIcon.getIntrinsicHeight()));
+        assertEquals(1, renderMetrics.getIconDecodeCount());
+    }
+
+    @Test
+    public void icon_decodedPerSize() {
+        Drawable smallIcon = StepIconAtlas.getIcon(context, android.R.drawable.ic_menu_add, 24, renderMetrics);
+        Drawable largeIcon = StepIconAtlas.getIcon(context, android.R.drawable.ic_menu_add, 48, renderMetrics);
+        assertNotSame(smallIcon.getConstantState(), largeIcon.getConstantState());
+        assertEquals(2, renderMetrics.getIconDecodeCount());
+    }
+
+    @Test
+    public void icon_overMaxSizeNotKept() {
+        StepIconAtlas.getIcon(context, android.R.drawable.ic_menu_add, 1024, renderMetrics);
+        StepIconAtlas.getIcon(context, android.R.drawable.ic_menu_add, 1024, renderMetrics);
+        assertEquals(2, renderMetrics.getIconDecodeCount());
+    }
+
+    @Test
+    public void mutatedIcon_doesNotChangeCachedIcon() {
+        Drawable firstIcon = StepIconAtlas.getIcon(context, android.R.drawable.ic_menu_add, 48, renderMetrics);
+        firstIcon.mutate().setAlpha(100);
+        Drawable secondIcon = StepIconAtlas.getIcon(context, android.R.drawable.ic_menu_add, 48, renderMetrics);
+        assertEquals(255, secondIcon.getAlpha());
+        assertEquals(1, renderMetrics.getIconDecodeCount());
+    }
+
+    @Test
+    public void statefulIcon_sharedWithoutDecoding() {
+        Drawable firstIcon = StepIconAtlas.getIcon(context, android.R.drawable.btn_default, 48, renderMetrics);
+        Drawable secondIcon = StepIconAtlas.getIcon(context, android.R.drawable.btn_default, 48, renderMetrics);
+        assertSame(firstIcon.getConstantState(), secondIcon.getConstantState());
+        assertEquals(0, renderMetrics.getIconDecodeCount());
+    }
+
+    @Test
+    public void noIcon() {
+        assertNull(StepIconAtlas.getIcon(context, -1, 48, renderMetrics));
+    }
+}